@@ -0,0 +1,41 @@
+package com.safemath.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Custo de interpretar e validar o que o aluno digitou, incluindo entradas inválidas.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnswerCheckBenchmark {
+
+    @Param({"42", "  42 ", "42,0", "41", "4,5", "abc", ""})
+    public String input;
+
+    private Question question;
+
+    @Setup
+    public void setup() {
+        // resposta fixa para que "42" seja de fato a resposta certa
+        question = new Question(QuestionCodec.pack(QuestionCodec.ADD, 40, 2));
+    }
+
+    @Benchmark
+    public AnswerChecker.Outcome check() {
+        return AnswerChecker.check(input, question);
+    }
+}
@@ -0,0 +1,48 @@
+package com.safemath.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Ciclo derrota do chefe -> checkBossDefeat -> spawnBoss, sem UI (Game sem listener).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BossCycleBenchmark {
+
+    @Param({"Matematica", "Arcade", "Infinito"})
+    public String mode;
+
+    private Game game;
+
+    @Setup
+    public void setup() {
+        game = new Game();
+        // o Mode do JMH (anotação) esconde o enum do jogo, daí o nome completo; setMode já cria o primeiro chefe
+        game.setMode(com.safemath.game.Mode.parse(mode));
+    }
+
+    @Benchmark
+    public Boss defeatAndRespawn() {
+        // volta ao início antes do último chefe para o modo nunca terminar durante a medição
+        if (game.currentAnimal == game.animals.get(game.animals.size() - 1)) game.currentAnimal = game.animals.get(0);
+        if (game.arcadeStage >= 2) game.arcadeStage = 0;
+
+        game.currentBoss.takeDamage(game.currentBoss.health);
+        game.checkBossDefeat();
+        return game.currentBoss;
+    }
+}
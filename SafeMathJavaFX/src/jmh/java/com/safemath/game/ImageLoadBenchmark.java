@@ -0,0 +1,60 @@
+package com.safemath.game;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Decodificação de imagens pelo mesmo caminho do GamePane (ImageCache): arquivo inteiro,
+// direto no tamanho de exibição e acerto de cache. Precisa do toolkit JavaFX (máquina com display).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ImageLoadBenchmark {
+
+    @Param({"/images/matematica/boss1.png", "/images/coelho.png", "/images/BackgroundLutas.png"})
+    public String path;
+
+    private SpriteSize size;
+
+    @Setup
+    public void setup() {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException alreadyStarted) {
+            // toolkit já iniciado por outro benchmark do mesmo fork
+        }
+        size = path.contains("Background") ? SpriteSize.BACKGROUND
+                : path.contains("boss") ? SpriteSize.BOSS : SpriteSize.CARD;
+        ImageCache.get(path, size);
+    }
+
+    @Benchmark
+    public Image decodeFullSize() {
+        return ImageCache.load(path, 0, 0, true);
+    }
+
+    @Benchmark
+    public Image decodeDisplaySize() {
+        return ImageCache.load(path, size.width, size.height, size.preserveRatio);
+    }
+
+    @Benchmark
+    public Image cacheHit() {
+        return ImageCache.get(path, size);
+    }
+}
@@ -0,0 +1,52 @@
+package com.safemath.game;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Vazão de QuestionGenerator.generate por nível e por sequência de acertos
+// (os valores de streak cobrem todos os limites usados em generateForBase).
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionGeneratorBenchmark {
+
+    @Param({"facil", "medio", "dificil", "infinito"})
+    public String tier;
+
+    @Param({"0", "2", "3", "5", "6", "7", "10", "12", "15", "25"})
+    public int streak;
+
+    private QuestionGenerator qGen;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        qGen = new QuestionGenerator();
+        for (int i = 0; i < streak; i++) qGen.recordAnswer(true);
+    }
+
+    @Benchmark
+    public Question generate() {
+        return qGen.generate(tier);
+    }
+
+    // caminho sem alocação (só o código empacotado)
+    @Benchmark
+    public long generateCode() {
+        return qGen.generateCode(tier);
+    }
+}
@@ -3,19 +3,22 @@ package com.safemath.game;
 public class Animal {
     public String name;
     public int force;
-    public int cooldown = 0;
+    // posição no elenco e turno em que volta a poder atacar (controlados pelo CooldownScheduler do Game)
+    public int index = -1;
+    long readyTurn;
+    CooldownScheduler scheduler;
 
     public Animal(String name,int force) {
         this.name = name;
         this.force = force;
     }
 
-    public boolean canAttack() {
-        return cooldown==0;
+    // turnos de cooldown que faltam (0 = pode atacar)
+    public int cooldown() {
+        return scheduler != null ? scheduler.remaining(this) : 0;
     }
 
-    public void decrementCooldown() {
-        if(cooldown>0) cooldown--;
-        else cooldown = 0;
+    public boolean canAttack() {
+        return cooldown()==0;
     }
 }
@@ -0,0 +1,78 @@
+package com.safemath.game;
+
+// Validação única do que o aluno digitou, usada pelo GamePane e pelo QuestionDialog.
+// Lê o texto caractere a caractere (sem trim/replace/parse, sem exceções) e compara como inteiro exato.
+// Aceita espaços em volta, sinal, e parte decimal só de zeros com vírgula ou ponto ("42,0", "42.00").
+public final class AnswerChecker {
+
+    public enum Outcome {
+        CORRECT,
+        WRONG,      // número válido, mas diferente da resposta (inclui "4,5" para resposta inteira)
+        MALFORMED   // vazio, letras, só sinal, etc.
+    }
+
+    // mais dígitos que isso nunca é resposta de nenhuma questão; evita estouro do long
+    private static final int MAX_DIGITS = 12;
+
+    private AnswerChecker() {}
+
+    public static Outcome check(CharSequence text, Question q) {
+        return q == null ? Outcome.WRONG : check(text, q.answer);
+    }
+
+    public static Outcome check(CharSequence text, long expected) {
+        if (text == null) return Outcome.MALFORMED;
+        int end = text.length();
+        int i = 0;
+        while (i < end && Character.isWhitespace(text.charAt(i))) i++;
+        while (end > i && Character.isWhitespace(text.charAt(end - 1))) end--;
+        if (i == end) return Outcome.MALFORMED;
+
+        boolean negative = false;
+        char c = text.charAt(i);
+        if (c == '-' || c == '+') {
+            negative = c == '-';
+            i++;
+        }
+
+        long value = 0;
+        int digits = 0;
+        boolean sawIntegerDigit = false;
+        boolean tooLong = false;
+        for (; i < end; i++) {
+            c = text.charAt(i);
+            if (!isDigit(c)) break;
+            sawIntegerDigit = true;
+            if (digits == 0 && c == '0') continue; // zeros à esquerda não contam
+            if (++digits > MAX_DIGITS) tooLong = true;
+            else value = value * 10 + (c - '0');
+        }
+
+        boolean fraction = false;
+        if (i < end && (text.charAt(i) == ',' || text.charAt(i) == '.')) {
+            i++;
+            boolean sawFractionDigit = false;
+            for (; i < end; i++) {
+                c = text.charAt(i);
+                if (!isDigit(c)) break;
+                sawFractionDigit = true;
+                if (c != '0') fraction = true;
+            }
+            if (!sawIntegerDigit && !sawFractionDigit) return Outcome.MALFORMED;
+        } else if (!sawIntegerDigit) {
+            return Outcome.MALFORMED;
+        }
+        if (i != end) return Outcome.MALFORMED;
+
+        if (fraction || tooLong) return Outcome.WRONG;
+        return (negative ? -value : value) == expected ? Outcome.CORRECT : Outcome.WRONG;
+    }
+
+    public static boolean isCorrect(CharSequence text, Question q) {
+        return check(text, q) == Outcome.CORRECT;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
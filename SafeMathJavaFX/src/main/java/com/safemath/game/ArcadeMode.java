@@ -0,0 +1,53 @@
+package com.safemath.game;
+
+// Arcade: três chefes cada vez mais fortes, todos os animais liberados desde o início.
+final class ArcadeMode implements GameMode {
+
+    // vida do chefe de cada fase (game.arcadeStage)
+    private static final int[] BOSS_HEALTH = {200, 300, 400};
+
+    private static final String[] BOSSES = {
+            "/images/arcade/boss1.png",
+            "/images/arcade/boss2.png",
+            "/images/arcade/boss3.png"
+    };
+
+    @Override
+    public int bossHealth(Game game) {
+        return BOSS_HEALTH[Math.min(game.arcadeStage, BOSS_HEALTH.length - 1)];
+    }
+
+    @Override
+    public String difficulty() {
+        return "medio";
+    }
+
+    // o contra-ataque fica mais forte a cada fase
+    @Override
+    public int counterDamageMax(Game game) {
+        return 50 + game.arcadeStage * 50;
+    }
+
+    @Override
+    public String[] bossSprites() {
+        return BOSSES;
+    }
+
+    @Override
+    public int bossSpriteIndex(Game game) {
+        return Math.max(1, Math.min(game.arcadeStage + 1, BOSSES.length));
+    }
+
+    @Override
+    public void onBossDefeated(Game game) {
+        game.record(EventJournal.BOSS_DEFEATED, game.modeIndex(), game.arcadeStage, 0, 0);
+        if (game.listener != null) game.listener.onBossDefeated();
+        game.arcadeStage++;
+        if (game.arcadeStage < BOSS_HEALTH.length) {
+            game.spawnBoss();
+        } else {
+            if (game.listener != null) game.listener.onModeVictory();
+            game.endGame();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.safemath.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Pré-carga das imagens do menu e dos três modos em threads virtuais, em paralelo,
+// enquanto a tela de carregamento é exibida. Tudo vai para o ImageCache/SpriteAtlas,
+// então o primeiro GamePane já encontra as imagens decodificadas.
+public final class AssetPreloader {
+
+    private AssetPreloader() {}
+
+    // imagens do menu (Main.criarMenu)
+    static void preloadMenu() {
+        ImageCache.get("/images/SafeMath.png", SpriteSize.BACKGROUND);
+        ImageCache.get("/images/seta.png", SpriteSize.ARROW);
+    }
+
+    // imagens comuns a todos os modos (GamePane)
+    static void preloadArena() {
+        ImageCache.get("/images/BackgroundLutas.png", SpriteSize.BACKGROUND);
+        ImageCache.get("/images/player.png", SpriteSize.PLAYER);
+    }
+
+    // animais e chefes: pelo atlas quando existir, senão cada arquivo no tamanho de exibição
+    static void preloadSprites() {
+        if (SpriteAtlas.load()) return;
+        List<Runnable> tasks = new ArrayList<>();
+        for (String path : SpriteAtlas.ANIMAL_SPRITES) {
+            tasks.add(() -> {
+                ImageCache.get(path, SpriteSize.CARD);
+                ImageCache.get(path, SpriteSize.PORTRAIT);
+            });
+        }
+        for (String path : SpriteAtlas.BOSS_SPRITES) {
+            tasks.add(() -> ImageCache.get(path, SpriteSize.BOSS));
+        }
+        for (String path : SpriteAtlas.BOSS_INFINITO_SPRITES) {
+            tasks.add(() -> ImageCache.get(path, SpriteSize.BOSS_INFINITO));
+        }
+        runAll(tasks).join();
+    }
+
+    // Executa cada tarefa numa thread virtual própria; falhas são registradas e não interrompem as outras.
+    public static CompletableFuture<Void> runAll(List<Runnable> tasks) {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            futures[i] = CompletableFuture.runAsync(tasks.get(i), executor)
+                    .exceptionally(ex -> {
+                        System.err.println("Erro na pré-carga: " + ex.getMessage());
+                        return null;
+                    });
+        }
+        return CompletableFuture.allOf(futures).whenComplete((r, ex) -> executor.shutdown());
+    }
+}
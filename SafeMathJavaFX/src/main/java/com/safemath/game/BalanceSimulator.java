@@ -0,0 +1,237 @@
+package com.safemath.game;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Simulador de balanceamento sem interface: joga milhões de partidas de cada modo com as regras reais
+// (Game + BattleEngine) e um aluno simulado que acerta cada nível de questão com uma probabilidade fixa.
+// As partidas são divididas entre todos os núcleos com fork/join; a partida i usa a semente (semente + i),
+// então o resultado não depende da quantidade de threads.
+//
+// Uso: BalanceSimulator [--battles 1000000] [--modes Matematica,Arcade,Infinito] [--seed N] [--threads N]
+//        [--max-turns 2000] [--accuracy facil=0.95,medio=0.85,dificil=0.7,insano=0.5,expressao=0.4,expressao_longa=0.3]
+public class BalanceSimulator {
+
+    // partidas por tarefa antes de parar de dividir
+    private static final int TASK_BATCH = 512;
+    private static final int HP_BUCKET = 20;
+    private static final int MAX_TRACKED_TURNS = 512;
+
+    private final Mode mode;
+    private final double[] accuracy;
+    private final long seed;
+    private final int maxTurns;
+
+    public BalanceSimulator(Mode mode, double[] accuracy, long seed, int maxTurns) {
+        this.mode = mode;
+        this.accuracy = accuracy;
+        this.seed = seed;
+        this.maxTurns = maxTurns;
+    }
+
+    // Totais de um lote de partidas; lotes são somados com merge()
+    public static class Stats {
+        public long battles;
+        public long wins;
+        public long losses;
+        public long timeouts;
+        public long turns;
+        public long bossesDefeated;
+        public long correctAnswers;
+        public long answers;
+        // turnos até derrotar cada chefe (o último balde junta tudo acima)
+        public final long[] turnsToKill = new long[MAX_TRACKED_TURNS + 1];
+        // vida do jogador no fim da partida, em faixas de HP_BUCKET
+        public final long[] finalHp = new long[200 / HP_BUCKET + 1];
+
+        void merge(Stats o) {
+            battles += o.battles;
+            wins += o.wins;
+            losses += o.losses;
+            timeouts += o.timeouts;
+            turns += o.turns;
+            bossesDefeated += o.bossesDefeated;
+            correctAnswers += o.correctAnswers;
+            answers += o.answers;
+            for (int i = 0; i < turnsToKill.length; i++) turnsToKill[i] += o.turnsToKill[i];
+            for (int i = 0; i < finalHp.length; i++) finalHp[i] += o.finalHp[i];
+        }
+    }
+
+    public Stats run(long battles, ForkJoinPool pool) {
+        return pool.invoke(new Batch(0, battles));
+    }
+
+    private class Batch extends RecursiveTask<Stats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Batch(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Stats compute() {
+            if (to - from <= TASK_BATCH) {
+                Stats stats = new Stats();
+                for (long i = from; i < to; i++) playBattle(seed + i, stats);
+                return stats;
+            }
+            long mid = (from + to) >>> 1;
+            Batch left = new Batch(from, mid);
+            left.fork();
+            Stats right = new Batch(mid, to).compute();
+            right.merge(left.join());
+            return right;
+        }
+    }
+
+    // Uma partida como no GamePane: o aluno ataca com o animal mais forte pronto e responde cada questão
+    // com a probabilidade de acerto do nível dela.
+    void playBattle(long battleSeed, Stats stats) {
+        Game game = new Game(battleSeed);
+        game.setMode(mode);
+        BattleEngine engine = new BattleEngine(game);
+        SplittableRandom student = new SplittableRandom(battleSeed * 0x9E3779B97F4A7C15L);
+
+        int turns = 0;
+        int turnsThisBoss = 0;
+        while (!game.isFinished() && turns < maxTurns) {
+            Question q = engine.nextQuestion();
+            boolean correct = student.nextDouble() < accuracy[game.qGen.lastTier().ordinal()];
+            Animal attacker = game.isPlayerTurn() ? strongestReady(game) : null;
+            TurnResult r = engine.submitAnswer(attacker, q, correct, 0);
+
+            turns++;
+            turnsThisBoss++;
+            stats.answers++;
+            if (correct) stats.correctAnswers++;
+            if (r.bossDefeated) {
+                stats.bossesDefeated++;
+                stats.turnsToKill[Math.min(turnsThisBoss, MAX_TRACKED_TURNS)]++;
+                turnsThisBoss = 0;
+            }
+        }
+
+        stats.battles++;
+        stats.turns += turns;
+        if (!game.isFinished()) stats.timeouts++;
+        else if (game.player.isAlive()) stats.wins++;
+        else stats.losses++;
+        stats.finalHp[game.player.getHealth() / HP_BUCKET]++;
+    }
+
+    private static Animal strongestReady(Game game) {
+        Animal best = null;
+        int limit = game.rules().availableAnimals(game);
+        for (int i = game.cooldowns.nextReady(0); i >= 0 && i < limit; i = game.cooldowns.nextReady(i + 1)) {
+            Animal a = game.animals.get(i);
+            if (best == null || a.force > best.force) best = a;
+        }
+        return best != null ? best : game.currentAnimal;
+    }
+
+    public static void main(String[] args) {
+        long battles = 1_000_000;
+        List<Mode> modes = new ArrayList<>(List.of(Mode.values()));
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        int maxTurns = 2000;
+        double[] accuracy = {0.95, 0.85, 0.7, 0.5, 0.4, 0.3};
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (arg) {
+                case "--battles" -> { battles = Long.parseLong(value); i++; }
+                case "--seed" -> { seed = Long.parseLong(value); i++; }
+                case "--threads" -> { threads = Integer.parseInt(value); i++; }
+                case "--max-turns" -> { maxTurns = Integer.parseInt(value); i++; }
+                case "--modes" -> {
+                    modes.clear();
+                    for (String m : value.split(",")) modes.add(Mode.parse(m.trim()));
+                    i++;
+                }
+                case "--accuracy" -> {
+                    for (String pair : value.split(",")) {
+                        String[] kv = pair.split("=");
+                        accuracy[QuestionTier.parse(kv[0].trim()).ordinal()] = Double.parseDouble(kv[1].trim());
+                    }
+                    i++;
+                }
+                default -> {
+                    System.err.println("Argumento desconhecido: " + arg);
+                    System.exit(1);
+                }
+            }
+        }
+
+        System.out.print("Acerto por nível:");
+        for (QuestionTier t : QuestionTier.values()) System.out.printf(" %s=%.2f", t.key, accuracy[t.ordinal()]);
+        System.out.printf("%nSemente %d, %d threads, até %d turnos por partida%n%n", seed, threads, maxTurns);
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        for (Mode mode : modes) {
+            BalanceSimulator sim = new BalanceSimulator(mode, accuracy, seed, maxTurns);
+            long start = System.nanoTime();
+            Stats s = sim.run(battles, pool);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            report(mode, s, seconds);
+        }
+        pool.shutdown();
+    }
+
+    private static void report(Mode mode, Stats s, double seconds) {
+        System.out.printf("Modo %s: %d partidas em %.2f s (%.0f partidas/s)%n", mode, s.battles, seconds, s.battles / seconds);
+        System.out.printf("  vitórias %.1f%%, derrotas %.1f%%, sem fim (limite de turnos) %.1f%%%n",
+                pct(s.wins, s.battles), pct(s.losses, s.battles), pct(s.timeouts, s.battles));
+        System.out.printf("  turnos por partida: %.1f, acerto real %.1f%%, chefes derrotados por partida: %.2f%n",
+                s.turns / (double) s.battles, pct(s.correctAnswers, s.answers), s.bossesDefeated / (double) s.battles);
+        if (s.bossesDefeated > 0) {
+            System.out.printf("  turnos até derrotar um chefe: média %.1f, p50 %d, p90 %d, p99 %d%n",
+                    mean(s.turnsToKill), percentile(s.turnsToKill, 0.5), percentile(s.turnsToKill, 0.9),
+                    percentile(s.turnsToKill, 0.99));
+        }
+        System.out.print("  vida final do jogador:");
+        for (int i = 0; i < s.finalHp.length; i++) {
+            if (s.finalHp[i] == 0) continue;
+            int low = i * HP_BUCKET;
+            String range = i == s.finalHp.length - 1 ? String.valueOf(low) : low + "-" + (low + HP_BUCKET - 1);
+            System.out.printf(" %s: %.1f%%", range, pct(s.finalHp[i], s.battles));
+        }
+        System.out.println();
+        System.out.println();
+    }
+
+    private static double pct(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+
+    private static double mean(long[] histogram) {
+        long n = 0;
+        long sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            n += histogram[i];
+            sum += i * histogram[i];
+        }
+        return n == 0 ? 0 : sum / (double) n;
+    }
+
+    private static int percentile(long[] histogram, double p) {
+        long n = 0;
+        for (long c : histogram) n += c;
+        long target = (long) Math.ceil(n * p);
+        long seen = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            seen += histogram[i];
+            if (seen >= target) return i;
+        }
+        return histogram.length - 1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.safemath.game;
+
+// Regras de um turno de batalha, sem nenhuma dependência de JavaFX: dano do animal, cooldown,
+// contra-ataque do chefe e troca de turno. O GamePane apenas desenha o TurnResult.
+public class BattleEngine {
+    private final Game game;
+
+    public BattleEngine(Game game) {
+        this.game = game;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    public Question nextQuestion() {
+        Question q = game.qGen.generate(game.difficultyForMode());
+        game.record(EventJournal.QUESTION, 0, 0, 0, q.code);
+        return q;
+    }
+
+    // turnos de espera após atacar: 10% da força, no mínimo 1
+    public static int cooldownFor(Animal a) {
+        return Math.max(1, (int) Math.round(a.force * 0.1));
+    }
+
+    // dano máximo do contra-ataque do chefe em cada modo
+    public int counterDamageMax() {
+        return game.rules().counterDamageMax(game);
+    }
+
+    // Processa a resposta do turno atual. selected = animal escolhido para atacar (null usa o atual).
+    public TurnResult submitAnswer(Animal selected, boolean correct) {
+        return submitAnswer(selected, null, correct, 0);
+    }
+
+    // q = questão respondida e latencyNanos = tempo que o aluno levou; alimentam o SkillStats do gerador
+    public TurnResult submitAnswer(Animal selected, Question q, boolean correct, long latencyNanos) {
+        TurnResult r = new TurnResult();
+        r.correct = correct;
+        r.attackTurn = game.isPlayerTurn();
+
+        if (q != null) game.qGen.recordAnswer(q.code, correct, latencyNanos);
+        else game.qGen.recordAnswer(correct);
+        if (correct) {
+            game.streak++;
+            game.longestStreak = Math.max(game.longestStreak, game.streak);
+        } else {
+            game.streak = 0;
+        }
+        game.record(EventJournal.ANSWER, correct ? 1 : 0, 0,
+                (int) Math.min(Integer.MAX_VALUE, latencyNanos / 1_000_000), q != null ? q.code : 0);
+
+        if (r.attackTurn) {
+            Animal attacker = selected != null ? selected : game.currentAnimal;
+            r.attacker = attacker;
+
+            if (attacker.canAttack()) {
+                r.attacked = true;
+                if (correct) {
+                    int dmg = attacker.force;
+                    boolean bossDied = false;
+                    if (game.currentBoss != null) {
+                        game.currentBoss.takeDamage(dmg);
+                        bossDied = !game.currentBoss.isAlive();
+                    }
+                    r.bossDamage = dmg;
+                    game.damageDealt += dmg;
+                    game.record(EventJournal.ATTACK, 0, attacker.index, dmg,
+                            game.currentBoss != null ? game.currentBoss.health : 0);
+
+                    r.cooldownApplied = cooldownFor(attacker);
+                    game.cooldowns.start(attacker, r.cooldownApplied);
+
+                    if (bossDied) {
+                        // chefe derrotado: o próximo (ou o fim do modo) é resolvido aqui e o turno continua sendo de ataque
+                        r.bossDefeated = true;
+                        game.checkBossDefeat();
+                        r.gameOver = game.isFinished();
+                        return r;
+                    }
+                }
+            }
+            game.decrementAllCooldowns();
+        } else {
+            int dmg = game.getRandomDamage(counterDamageMax());
+            if (!correct) {
+                game.player.takeDamage(dmg);
+                r.playerDamage = dmg;
+                game.record(EventJournal.PLAYER_DAMAGE, 0, 0, dmg, game.player.getHealth());
+                if (!game.player.isAlive()) {
+                    r.playerDefeated = true;
+                    game.endGame();
+                    r.gameOver = true;
+                    return r;
+                }
+            }
+        }
+
+        game.togglePlayerTurn();
+        r.turnEnded = true;
+        return r;
+    }
+}
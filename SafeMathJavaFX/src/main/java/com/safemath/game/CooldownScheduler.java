@@ -0,0 +1,99 @@
+package com.safemath.game;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+// Cooldowns do elenco numa roda de tempo indexada pelo turno, mais um bitset com os animais prontos.
+// Pôr um animal em cooldown guarda o turno em que ele volta (Animal.readyTurn) na posição desse turno
+// na roda; avançar o turno só olha a posição do turno novo, então o custo não depende do tamanho do
+// elenco, apenas de quantos animais voltam naquele turno. Cooldowns maiores que a roda ficam na posição
+// e são reexaminados a cada volta completa.
+public final class CooldownScheduler {
+
+    // potência de 2, maior que os cooldowns normais (10% da força)
+    private static final int WHEEL_SIZE = 64;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final List<Animal> roster;
+    // bit i = animal i fora de cooldown
+    private final BitSet ready = new BitSet();
+    // índices dos animais que voltam no turno (t & MASK)
+    private final int[][] slots = new int[WHEEL_SIZE][];
+    private final int[] slotSize = new int[WHEEL_SIZE];
+    private long turn = 0;
+
+    public CooldownScheduler(List<Animal> roster) {
+        this.roster = roster;
+    }
+
+    // animal novo no elenco (já na posição "index" da lista), começa pronto
+    void register(Animal a, int index) {
+        a.index = index;
+        a.scheduler = this;
+        a.readyTurn = turn;
+        ready.set(index);
+    }
+
+    public long turn() {
+        return turn;
+    }
+
+    // turnos que faltam para o animal poder atacar de novo
+    public int remaining(Animal a) {
+        return (int) Math.max(0, a.readyTurn - turn);
+    }
+
+    public boolean isReady(int index) {
+        return ready.get(index);
+    }
+
+    // próximo animal pronto a partir de "from" (inclusive), ou -1
+    public int nextReady(int from) {
+        return ready.nextSetBit(from);
+    }
+
+    // animal pronto mais próximo de "from" abaixo de "limit": primeiro antes dele, depois depois dele; -1 se nenhum
+    public int nearestReady(int from, int limit) {
+        int i = from > 0 ? ready.previousSetBit(Math.min(from, limit) - 1) : -1;
+        if (i >= 0) return i;
+        i = ready.nextSetBit(from + 1);
+        return i >= 0 && i < limit ? i : -1;
+    }
+
+    // põe o animal em cooldown por "turns" turnos (0 = pronto já)
+    public void start(Animal a, int turns) {
+        if (turns <= 0) {
+            a.readyTurn = turn;
+            ready.set(a.index);
+            return;
+        }
+        a.readyTurn = turn + turns;
+        ready.clear(a.index);
+        int slot = (int) (a.readyTurn & MASK);
+        int[] entries = slots[slot];
+        if (entries == null) entries = slots[slot] = new int[4];
+        else if (slotSize[slot] == entries.length) entries = slots[slot] = Arrays.copyOf(entries, entries.length * 2);
+        entries[slotSize[slot]++] = a.index;
+    }
+
+    // fim da rodada: passa um turno e libera quem terminou o cooldown
+    public void advance() {
+        turn++;
+        int slot = (int) (turn & MASK);
+        int[] entries = slots[slot];
+        int n = slotSize[slot];
+        int kept = 0;
+        for (int i = 0; i < n; i++) {
+            Animal a = roster.get(entries[i]);
+            if (a.readyTurn <= turn) {
+                ready.set(a.index);
+            } else if ((a.readyTurn & MASK) == slot) {
+                // mais de uma volta da roda pela frente
+                entries[kept++] = entries[i];
+            }
+            // senão o cooldown foi refeito e a entrada válida está em outra posição
+        }
+        slotSize[slot] = kept;
+    }
+}
@@ -0,0 +1,298 @@
+package com.safemath.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Diário binário dos eventos de jogo (questões, respostas, dano, chefes, desbloqueios, fim de partida).
+// Registros de tamanho fixo gravados num arquivo de segmento mapeado em memória: gravar é só escrever na
+// memória (sem chamada de sistema), por isso pode ficar ligado na thread do JavaFX. O próximo segmento é
+// criado e mapeado antes, numa thread de fundo; se ainda não estiver pronto quando o atual encher, o
+// registro é descartado (e contado) em vez de esperar.
+//
+// Segmento journal-NNNNNN.seg: cabeçalho de 16 bytes ("SMEJ", versão, tamanho do registro, número do segmento)
+// e registros de 32 bytes (big-endian, ordem padrão do ByteBuffer):
+//   long horário (ms desde 1970), long semente da sessão, byte tipo, byte flag, short pequeno, int a, long valor
+// Um registro com tipo 0 marca o fim dos dados do segmento.
+public final class EventJournal implements Closeable {
+
+    public static final int RECORD_SIZE = 32;
+    static final int HEADER_SIZE = 16;
+    private static final int MAGIC = 0x534D454A; // "SMEJ"
+    private static final short VERSION = 1;
+    public static final int DEFAULT_SEGMENT_SIZE = 4 << 20;
+    // segmentos mais antigos que isso são apagados (4 MB cada)
+    private static final int MAX_SEGMENTS = 16;
+    private static final int PAGE_SIZE = 4096;
+
+    // tipos de evento; o significado de flag/pequeno/a/valor está ao lado
+    public static final byte SESSION_START = 1;   // flag = modo (0 Matemática, 1 Arcade, 2 Infinito), a = vida do chefe
+    public static final byte QUESTION = 2;        // valor = código da questão (QuestionCodec)
+    public static final byte ANSWER = 3;          // flag = 1 se certa, a = tempo de resposta (ms), valor = código
+    public static final byte ATTACK = 4;          // pequeno = índice do animal, a = dano, valor = vida do chefe depois
+    public static final byte PLAYER_DAMAGE = 5;   // a = dano, valor = vida do jogador depois
+    public static final byte BOSS_SPAWN = 6;      // flag = modo, pequeno = fase do Arcade, a = vida do chefe
+    public static final byte BOSS_DEFEATED = 7;   // flag = modo, pequeno = fase do Arcade / índice do animal
+    public static final byte ANIMAL_UNLOCKED = 8; // pequeno = índice do animal desbloqueado
+    public static final byte GAME_OVER = 9;       // flag = 1 vitória, 0 derrota
+
+    private final Path dir;
+    private final int segmentSize;
+    private final ExecutorService background = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "event-journal");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private MappedByteBuffer current;
+    private int segmentIndex;
+    private int position;
+    private MappedByteBuffer next;
+    private boolean nextRequested;
+    private long appended;
+    private long dropped;
+    private boolean closed;
+
+    private EventJournal(Path dir, int segmentSize, int firstSegment) throws IOException {
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+        this.segmentIndex = firstSegment;
+        this.current = mapSegment(firstSegment);
+        this.position = HEADER_SIZE;
+        // cada execução abre um segmento novo: sem isso, quiosques reiniciados todo dia acumulariam segmentos
+        // (a limpeza da troca de segmento só acontece em sessões que enchem 4 MB)
+        deleteOldSegments(firstSegment);
+    }
+
+    // abre o diário no diretório; cada execução começa num segmento novo, depois dos já existentes
+    public static EventJournal open(Path dir) throws IOException {
+        return open(dir, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static EventJournal open(Path dir, int segmentSize) throws IOException {
+        if (segmentSize < HEADER_SIZE + RECORD_SIZE * 4) {
+            throw new IllegalArgumentException("Segmento pequeno demais: " + segmentSize);
+        }
+        Files.createDirectories(dir);
+        List<Path> existing = segments(dir);
+        int first = existing.isEmpty() ? 1 : indexOf(existing.get(existing.size() - 1)) + 1;
+        return new EventJournal(dir, segmentSize, first);
+    }
+
+    // Grava um evento. Sem alocação e sem E/S: só escritas na região mapeada.
+    public synchronized void append(byte type, long seed, int flag, int small, int a, long value) {
+        if (closed) return;
+        if (position + RECORD_SIZE > segmentSize && !rollover()) {
+            dropped++;
+            return;
+        }
+        MappedByteBuffer buf = current;
+        int p = position;
+        buf.putLong(p, System.currentTimeMillis());
+        buf.putLong(p + 8, seed);
+        buf.put(p + 17, (byte) flag);
+        buf.putShort(p + 18, (short) small);
+        buf.putInt(p + 20, a);
+        buf.putLong(p + 24, value);
+        buf.put(p + 16, type); // tipo por último: registro pela metade continua com tipo 0
+        position = p + RECORD_SIZE;
+        appended++;
+
+        // a partir de 3/4 do segmento já prepara o próximo
+        if (!nextRequested && position > segmentSize - segmentSize / 4) requestNextSegment();
+    }
+
+    public synchronized long appended() {
+        return appended;
+    }
+
+    public synchronized long dropped() {
+        return dropped;
+    }
+
+    // Grava o que estiver pendente no disco e espera a thread de fundo terminar. O próximo segmento, se já
+    // foi criado mas nunca recebeu registros, é apagado: vazio, só tiraria a vaga de um segmento de verdade
+    // entre os MAX_SEGMENTS guardados.
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            current.force();
+        }
+        background.shutdown();
+        try {
+            if (!background.awaitTermination(5, TimeUnit.SECONDS)) {
+                System.err.println("EventJournal: thread de fundo não terminou ao fechar");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        boolean unused;
+        int index;
+        synchronized (this) {
+            unused = next != null;
+            next = null;
+            index = segmentIndex + 1;
+        }
+        if (unused) deleteSegment(index);
+    }
+
+    private void requestNextSegment() {
+        nextRequested = true;
+        int index = segmentIndex + 1;
+        background.execute(() -> {
+            synchronized (this) {
+                if (closed) return;
+            }
+            try {
+                MappedByteBuffer mapped = mapSegment(index);
+                boolean open;
+                synchronized (this) {
+                    open = !closed;
+                    if (open) next = mapped;
+                }
+                // fechado enquanto o segmento era criado: ele nunca vai ser usado
+                if (!open) {
+                    deleteSegment(index);
+                    return;
+                }
+                deleteOldSegments(index);
+            } catch (IOException ex) {
+                System.err.println("EventJournal: não foi possível criar o segmento " + index + ": " + ex.getMessage());
+                synchronized (this) {
+                    nextRequested = false;
+                }
+            }
+        });
+    }
+
+    // troca para o segmento já mapeado; false se ele ainda não ficou pronto (nunca espera)
+    private boolean rollover() {
+        if (next == null) {
+            if (!nextRequested) requestNextSegment();
+            return false;
+        }
+        MappedByteBuffer full = current;
+        background.execute(full::force);
+        current = next;
+        next = null;
+        nextRequested = false;
+        segmentIndex++;
+        position = HEADER_SIZE;
+        return true;
+    }
+
+    private MappedByteBuffer mapSegment(int index) throws IOException {
+        Path file = dir.resolve(fileName(index));
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            buf.putInt(0, MAGIC);
+            buf.putShort(4, VERSION);
+            buf.putShort(6, (short) RECORD_SIZE);
+            buf.putInt(8, index);
+            // toca cada página agora (na thread de fundo) para que as faltas de página não caiam no append
+            for (int p = PAGE_SIZE; p < segmentSize; p += PAGE_SIZE) buf.put(p, (byte) 0);
+            return buf;
+        }
+    }
+
+    private void deleteOldSegments(int newest) {
+        try {
+            for (Path p : segments(dir)) {
+                if (indexOf(p) <= newest - MAX_SEGMENTS) Files.deleteIfExists(p);
+            }
+        } catch (IOException ex) {
+            System.err.println("EventJournal: erro ao apagar segmentos antigos: " + ex.getMessage());
+        }
+    }
+
+    private void deleteSegment(int index) {
+        try {
+            Files.deleteIfExists(dir.resolve(fileName(index)));
+        } catch (IOException ex) {
+            System.err.println("EventJournal: erro ao apagar o segmento " + index + ": " + ex.getMessage());
+        }
+    }
+
+    private static String fileName(int index) {
+        return String.format("journal-%06d.seg", index);
+    }
+
+    private static int indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Integer.parseInt(name.substring("journal-".length(), name.length() - ".seg".length()));
+    }
+
+    // segmentos do diretório em ordem de gravação
+    static List<Path> segments(Path dir) throws IOException {
+        List<Path> list = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return list;
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "journal-[0-9][0-9][0-9][0-9][0-9][0-9].seg")) {
+            for (Path p : ds) list.add(p);
+        }
+        Collections.sort(list);
+        return list;
+    }
+
+    // Leitura sequencial de todos os segmentos (replay, análises). Os campos do registro atual ficam
+    // disponíveis pelos getters depois de cada next(); nada é alocado por registro.
+    public static final class Reader {
+        private final List<Path> segments;
+        private int segment = -1;
+        private MappedByteBuffer buf;
+        private int position;
+        private int recordSize;
+
+        public Reader(Path dir) throws IOException {
+            this.segments = segments(dir);
+        }
+
+        public boolean next() throws IOException {
+            while (true) {
+                if (buf != null) {
+                    int p = position + recordSize;
+                    if (p + recordSize <= buf.capacity() && buf.get(p + 16) != 0) {
+                        position = p;
+                        return true;
+                    }
+                }
+                if (++segment >= segments.size()) return false;
+                openSegment(segments.get(segment));
+            }
+        }
+
+        private void openSegment(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            if (buf.capacity() < HEADER_SIZE || buf.getInt(0) != MAGIC) {
+                System.err.println("EventJournal: segmento inválido ignorado: " + file);
+                buf = null;
+                return;
+            }
+            recordSize = buf.getShort(6);
+            position = HEADER_SIZE - recordSize; // o primeiro next() cai no primeiro registro
+        }
+
+        public long time() { return buf.getLong(position); }
+        public long seed() { return buf.getLong(position + 8); }
+        public byte type() { return buf.get(position + 16); }
+        public int flag() { return buf.get(position + 17); }
+        public int small() { return buf.getShort(position + 18); }
+        public int a() { return buf.getInt(position + 20); }
+        public long value() { return buf.getLong(position + 24); }
+    }
+}
@@ -0,0 +1,107 @@
+package com.safemath.game;
+
+// Modelo de conta com 2 ou 3 operações sem parênteses, ex.: "a ÷ b + c × d" (× e ÷ antes de + e -).
+// Cada modelo tem um número próprio, guardado no byte de operação do QuestionCodec (0..3 são as contas simples).
+// A árvore da expressão é montada uma vez por modelo e vira um avaliador que lê os operandos direto do
+// código empacotado: calcular a resposta não aloca nada.
+public final class ExpressionTemplate {
+
+    public static final int FIRST_ID = 4;
+    // resultado de avaliar operandos que quebram alguma regra (parcial negativo, produto > 100, divisão não exata)
+    public static final int INVALID = -1;
+
+    private static final int MAX_PRODUCT = 100;
+    private static final int OPS = 4; // ADD, SUB, MUL, DIV
+
+    // ids: 4..19 duas operações (4 + op1*4 + op2), 20..83 três operações (20 + op1*16 + op2*4 + op3)
+    private static final int FIRST_THREE_OPS_ID = FIRST_ID + OPS * OPS;
+
+    @FunctionalInterface
+    interface Evaluator {
+        int eval(long code);
+    }
+
+    public final int id;
+    private final int[] ops;
+    private final Evaluator evaluator;
+
+    private static final ExpressionTemplate[] BY_ID = new ExpressionTemplate[FIRST_THREE_OPS_ID + OPS * OPS * OPS];
+    private static final ExpressionTemplate[] TWO_OPS = new ExpressionTemplate[OPS * OPS];
+    private static final ExpressionTemplate[] THREE_OPS = new ExpressionTemplate[OPS * OPS * OPS];
+
+    static {
+        for (int i = 0; i < TWO_OPS.length; i++) {
+            TWO_OPS[i] = new ExpressionTemplate(FIRST_ID + i, new int[]{i / OPS, i % OPS});
+            BY_ID[FIRST_ID + i] = TWO_OPS[i];
+        }
+        for (int i = 0; i < THREE_OPS.length; i++) {
+            int id = FIRST_THREE_OPS_ID + i;
+            THREE_OPS[i] = new ExpressionTemplate(id, new int[]{i / (OPS * OPS), (i / OPS) % OPS, i % OPS});
+            BY_ID[id] = THREE_OPS[i];
+        }
+    }
+
+    private ExpressionTemplate(int id, int[] ops) {
+        this.id = id;
+        this.ops = ops;
+        this.evaluator = compile(ops, 0, ops.length);
+    }
+
+    // modelo do id, ou null se o id for de uma conta simples (ou inválido)
+    public static ExpressionTemplate of(int id) {
+        return id >= FIRST_ID && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    // todos os modelos com 2 ou 3 operações (array compartilhado: não alterar)
+    static ExpressionTemplate[] withOperations(int operations) {
+        if (operations == 2) return TWO_OPS;
+        if (operations == 3) return THREE_OPS;
+        throw new IllegalArgumentException("Expressões têm 2 ou 3 operações: " + operations);
+    }
+
+    public int operations() {
+        return ops.length;
+    }
+
+    // operação entre o operando i e o i + 1
+    public int op(int i) {
+        return ops[i];
+    }
+
+    public int evaluate(long code) {
+        return evaluator.eval(code);
+    }
+
+    // Monta a árvore dos operandos from..to: a raiz é a operação de menor precedência mais à direita
+    // (associatividade à esquerda), e cada nó vira um avaliador que chama os dos filhos.
+    private static Evaluator compile(int[] ops, int from, int to) {
+        if (from == to) {
+            int index = from;
+            return code -> QuestionCodec.operand(code, index);
+        }
+        int root = -1;
+        for (int k = to - 1; k >= from && root < 0; k--) {
+            if (ops[k] == QuestionCodec.ADD || ops[k] == QuestionCodec.SUB) root = k;
+        }
+        if (root < 0) root = to - 1;
+
+        int op = ops[root];
+        Evaluator left = compile(ops, from, root);
+        Evaluator right = compile(ops, root + 1, to);
+        return code -> apply(op, left.eval(code), right.eval(code));
+    }
+
+    private static int apply(int op, int l, int r) {
+        if (l < 0 || r < 0) return INVALID;
+        switch (op) {
+            case QuestionCodec.ADD:
+                return l + r;
+            case QuestionCodec.SUB:
+                return l >= r ? l - r : INVALID;
+            case QuestionCodec.MUL:
+                return l * r <= MAX_PRODUCT ? l * r : INVALID;
+            default:
+                return r != 0 && l % r == 0 ? l / r : INVALID;
+        }
+    }
+}
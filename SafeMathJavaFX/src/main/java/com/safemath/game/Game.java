@@ -2,140 +2,176 @@ package com.safemath.game;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.random.RandomGenerator;
 
-public class Game {
-    public GamePane pane;
+// final: o construtor chama addAnimal e spawnBoss, que uma subclasse poderia ver pela metade
+public final class Game {
+    public GameListener listener;
+    // diário de eventos (null = desligado)
+    public EventJournal journal;
     public Animal currentAnimal;
     public Boss currentBoss;
     public Player player;
 
     public List<Animal> animals = new ArrayList<>();
-    public QuestionGenerator qGen = new QuestionGenerator();
+    // cooldowns e animais prontos do elenco (animais entram por addAnimal)
+    public final CooldownScheduler cooldowns = new CooldownScheduler(animals);
+    public QuestionGenerator qGen;
 
-    public String mode = "Matematica";
-    private Random rand = new Random();
+    // modo e as regras dele (resolvidas uma vez em setMode)
+    private Mode mode = Mode.MATEMATICA;
+    private GameMode rules = mode.rules;
+    private final SessionRandom random;
+    private final RandomGenerator rand;
     public int arcadeStage = 0;
 
+    // placar da partida (ranking): chefes derrotados, dano causado e sequência de acertos
+    public int bossesDefeated = 0;
+    public long damageDealt = 0;
+    public int streak = 0;
+    public int longestStreak = 0;
+
     private boolean isPlayerTurn = true;
+    private boolean finished = false;
 
     public Game() {
-        animals.add(new Animal("Coelho", 10));
-        animals.add(new Animal("Gato", 20));
-        animals.add(new Animal("Cao", 30));
-        animals.add(new Animal("Leão", 40));
-        animals.add(new Animal("Tigre", 50));
+        this(SessionRandom.newSession());
+    }
+
+    // mesma semente => mesma sequência de questões e danos (para reproduzir relatos de bug)
+    public Game(long seed) {
+        this(new SessionRandom(seed));
+    }
+
+    // partida restaurada de um save: mesma semente (seed), geradores a partir de streamSeed
+    Game(long seed, long streamSeed) {
+        this(new SessionRandom(seed, streamSeed));
+    }
+
+    public Game(SessionRandom random) {
+        this.random = random;
+        this.rand = random.damage();
+        this.qGen = new QuestionGenerator(random.questions());
+
+        addAnimal(new Animal("Coelho", 10));
+        addAnimal(new Animal("Gato", 20));
+        addAnimal(new Animal("Cao", 30));
+        addAnimal(new Animal("Leão", 40));
+        addAnimal(new Animal("Tigre", 50));
 
         currentAnimal = animals.get(0);
         player = new Player(200);
         spawnBoss();
     }
 
-    public void setPane(GamePane pane) {
-        this.pane = pane;
+    // novo animal no fim do elenco (no modo Matemática é desbloqueado na ordem da lista)
+    public void addAnimal(Animal a) {
+        cooldowns.register(a, animals.size());
+        animals.add(a);
+    }
+
+    public long getSeed() {
+        return random.seed();
+    }
+
+    // semente dos geradores de uma partida restaurada deste ponto (SessionSnapshot)
+    long continuationSeed() {
+        return random.continuationSeed();
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public GameMode rules() {
+        return rules;
+    }
+
+    // Define o modo antes do primeiro turno. O chefe criado no construtor (regras de Matemática)
+    // é trocado pelo primeiro chefe do modo escolhido.
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        this.rules = mode.rules;
+        spawnBoss();
+    }
+
+    public void setListener(GameListener listener) {
+        this.listener = listener;
+    }
+
+    // liga o diário; chamar depois de definir o modo (o primeiro chefe já existe e vai no SESSION_START)
+    public void setJournal(EventJournal journal) {
+        this.journal = journal;
+        record(EventJournal.SESSION_START, modeIndex(), 0, currentBoss != null ? currentBoss.maxHealth : 0, 0);
+    }
+
+    void record(byte type, int flag, int small, int a, long value) {
+        if (journal != null) journal.append(type, getSeed(), flag, small, a, value);
+    }
+
+    // modo como número para o diário (0 Matemática, 1 Arcade, 2 Infinito)
+    int modeIndex() {
+        return mode.ordinal();
     }
 
     public void spawnBoss() {
-        int vida = 0;
-        switch (mode) {
-            case "Matematica": vida = currentAnimal.force * 3; break;
-            case "Arcade":
-                if (arcadeStage == 0) vida = 200;
-                else if (arcadeStage == 1) vida = 300;
-                else vida = 400;
-                break;
-            case "Infinito": vida = 999999; break;
-        }
+        int vida = rules.bossHealth(this);
         currentBoss = new Boss("Chefe", vida);
+        record(EventJournal.BOSS_SPAWN, modeIndex(), arcadeStage, vida, 0);
         // Resetar progresso de perguntas quando um novo chefe surgir
         qGen.resetProgress();
-        if (pane != null) {
-            pane.updateBossHealth();
-            // Define a imagem do chefe dependendo do modo:
-            // Matemática: 5 chefes -> use index 1..5 (mapeado ao animal atual)
-            if ("Matematica".equals(mode)) {
-                int idx = animals.indexOf(currentAnimal) + 1; // 1..5
-                if (idx < 1) idx = 1;
-                if (idx > 5) idx = 5;
-                pane.setBossImageForMode("Matematica", idx);
-            }
-            // Arcade: 3 chefes -> use arcadeStage 0..2 => boss1..boss3
-            else if ("Arcade".equals(mode)) {
-                int idx = arcadeStage + 1; // 1..3
-                if (idx < 1) idx = 1;
-                if (idx > 3) idx = 3;
-                pane.setBossImageForMode("Arcade", idx);
-            }
-            // Infinito: 1 chefe
-            else if ("Infinito".equals(mode)) {
-                pane.setBossImageForMode("Infinito", 1);
-            }
-        }
+        // imagem do chefe conforme o modo (Matemática: um por animal, Arcade: um por fase, Infinito: um só)
+        if (listener != null) listener.onBossSpawned(mode, rules.bossSpriteIndex(this));
     }
 
     public void togglePlayerTurn() { isPlayerTurn = !isPlayerTurn; }
     public boolean isPlayerTurn() { return isPlayerTurn; }
+    public void setPlayerTurn(boolean playerTurn) { isPlayerTurn = playerTurn; }
 
     public String difficultyForMode() {
-        switch (mode) {
-            case "Matematica": return "facil";
-            case "Arcade": return "medio";
-            case "Infinito": return "infinito";
-            default: return "facil";
-        }
+        return rules.difficulty();
     }
 
     public void checkBossDefeat() {
         if (currentBoss != null && !currentBoss.isAlive()) {
-            if (mode.equals("Matematica")) {
-                int index = animals.indexOf(currentAnimal);
-                if (index < animals.size() - 1) {
-                    // Desbloqueia próximo animal
-                    currentAnimal = animals.get(index + 1);
-                    if (pane != null) {
-                        pane.showCenteredMessage("Novo animal desbloqueado:\n" + currentAnimal.name, 2.2);
-                        pane.updateAnimalSelection();
-                    }
-                    spawnBoss();
-                } else {
-                    if (pane != null) {
-                        // mostra a mensagem e volta automaticamente ao menu
-                        pane.onModeVictory();
-                    }
-                    endGame();
-                }
-            } else if (mode.equals("Arcade")) {
-                if (pane != null) {
-                    pane.showCenteredMessage("Você derrotou o chefe!", 1.8);
-                }
-                arcadeStage++;
-                if (arcadeStage < 3) {
-                    spawnBoss();
-                } else {
-                    if (pane != null) {
-                        pane.onModeVictory();
-                    }
-                    endGame();
-                }
-            } else if (mode.equals("Infinito")) {
-                // Infinito não termina — apenas respawna
-                if (pane != null) pane.log("🔁 Chefe re-spawn (Infinito)");
-                spawnBoss();
-            }
+            bossesDefeated++;
+            rules.onBossDefeated(this);
         }
     }
 
-    private void endGame() {
-        if (pane != null) {
-            pane.disableTurns();
+    public void endGame() {
+        finished = true;
+        record(EventJournal.GAME_OVER, player.isAlive() ? 1 : 0, 0, 0, 0);
+        if (listener != null) {
+            listener.onGameOver();
             // log é no-op na UI, mas mantemos para debug em console se quiser implementar
-            pane.log("🎮 O jogo terminou!");
+            listener.log("🎮 O jogo terminou!");
         }
     }
 
+    public boolean isFinished() { return finished; }
+
     public int getRandomDamage(int max) { return rand.nextInt(max) + 1; }
 
     public void decrementAllCooldowns() {
-        for (Animal a : animals) a.decrementCooldown();
+        cooldowns.advance();
+    }
+
+    // animais que podem ser escolhidos (no modo Matemática só os já desbloqueados).
+    // Os desbloqueados são sempre o começo do elenco, então é uma visão da lista, sem cópia.
+    public List<Animal> availableAnimals() {
+        return animals.subList(0, rules.availableAnimals(this));
+    }
+
+    public boolean isAvailable(Animal a) {
+        return a.index >= 0 && a.index < rules.availableAnimals(this);
+    }
+
+    // animal disponível e fora de cooldown mais próximo de "from" (procura antes, depois dele)
+    public Animal findPreviousAvailable(Animal from) {
+        if (!isAvailable(from)) return currentAnimal;
+        int i = cooldowns.nearestReady(from.index, rules.availableAnimals(this));
+        if (i >= 0) return animals.get(i);
+        return currentAnimal != null ? currentAnimal : animals.get(0);
     }
 }
\ No newline at end of file
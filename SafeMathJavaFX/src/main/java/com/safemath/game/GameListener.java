@@ -0,0 +1,12 @@
+package com.safemath.game;
+
+// Eventos que o Game avisa para quem estiver desenhando a partida (GamePane).
+// Sem listener o Game roda sem JavaFX (testes, simulações, servidor).
+public interface GameListener {
+    default void onBossSpawned(Mode mode, int spriteIndex) {}
+    default void onAnimalUnlocked(Animal animal) {}
+    default void onBossDefeated() {}
+    default void onModeVictory() {}
+    default void onGameOver() {}
+    default void log(String text) {}
+}
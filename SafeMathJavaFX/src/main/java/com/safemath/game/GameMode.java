@@ -0,0 +1,36 @@
+package com.safemath.game;
+
+// Regras de um modo de jogo. Cada Mode tem a sua instância; o Game guarda a do modo atual
+// e consulta ela em vez de comparar o nome do modo a cada turno. Para criar um modo novo basta
+// implementar esta interface e adicionar uma constante em Mode.
+// Sem JavaFX: os sprites são caminhos de recurso, o GamePane é quem carrega as imagens.
+public interface GameMode {
+
+    // vida do chefe que vai surgir agora (chamado pelo Game.spawnBoss)
+    int bossHealth(Game game);
+
+    // nível de questão pedido ao QuestionGenerator
+    String difficulty();
+
+    // dano máximo do contra-ataque do chefe
+    int counterDamageMax(Game game);
+
+    // sprites dos chefes deste modo, na ordem em que aparecem
+    String[] bossSprites();
+
+    // sprite do chefe atual, de 1 a bossSprites().length
+    int bossSpriteIndex(Game game);
+
+    // tamanho em que o chefe é desenhado
+    default SpriteSize bossSize() {
+        return SpriteSize.BOSS;
+    }
+
+    // quantos animais (do início da lista) o jogador pode escolher
+    default int availableAnimals(Game game) {
+        return game.animals.size();
+    }
+
+    // chefe atual derrotado: surge o próximo ou a partida termina
+    void onBossDefeated(Game game);
+}
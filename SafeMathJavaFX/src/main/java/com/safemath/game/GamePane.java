@@ -5,7 +5,6 @@ import javafx.animation.PauseTransition;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.control.OverrunStyle;
 import javafx.scene.image.Image;
@@ -15,13 +14,13 @@ import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.io.InputStream;
-import java.net.URL;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-public class GamePane extends BorderPane {
+public class GamePane extends BorderPane implements GameListener {
     private Game game;
+    private final BattleEngine engine;
 
     // Topo: turno, pergunta, resposta
     private final Label turnoLabel = new Label();
@@ -43,6 +42,12 @@ public class GamePane extends BorderPane {
     // Seleção de animais (cards)
     private final HBox animalSelectionBox = new HBox(6);
 
+    // Cards persistentes por animal: a cada turno só badge, opacidade e borda são atualizados
+    private final Map<Animal, AnimalCard> animalCards = new LinkedHashMap<>();
+
+    private static final String CARD_SELECTED_STYLE =
+            "-fx-background-color: transparent; -fx-border-color: #3b82f6; -fx-border-width: 3; -fx-border-radius: 6; -fx-background-radius: 6;";
+
     // Botão de pause (imagem)
     private final Button settingsButton = new Button();
 
@@ -52,43 +57,40 @@ public class GamePane extends BorderPane {
     // Overlays (dentro do gameStack)
     private final StackPane pauseOverlay = new StackPane();
     private final StackPane centerMessageLayer = new StackPane();
+    private final MessageOverlay messages = new MessageOverlay(centerMessageLayer);
 
+    // null no replay sem janela (ReplayDriver): sem save, ranking nem menu
     private final Main mainApp;
     private final Stage stage;
 
+    // gravação das ações do aluno (null = desligada)
+    private InputRecorder recorder;
+    // a resposta atual foi enviada com Enter (e não pelo botão)
+    private boolean enterPressed = false;
+    // tempo de resposta gravado, usado no lugar do medido quando o ReplayDriver envia a resposta (-1 = medir)
+    private long replayLatencyNanos = -1;
+
     // Campo novo: animal que está "locked" por ter entrado em cooldown
     private Animal lockedAnimal = null;
 
     // Questão atual armazenada como campo para uso na lambda
     private Question currentQuestion = null;
+    // quando a questão atual apareceu na tela (tempo de resposta para o SkillStats)
+    private long questionShownNanos = 0;
 
     private boolean gameActive = false;
     private Animal selectedAnimal;
 
-    // Paths formatados (suas pastas: images/matematica, images/arcade, images/infinito)
-    private static final String[] MATEMATICA_BOSSES = {
-            "/images/matematica/boss1.png",
-            "/images/matematica/boss2.png",
-            "/images/matematica/boss3.png",
-            "/images/matematica/boss4.png",
-            "/images/matematica/boss5.png"
-    };
-
-    private static final String[] ARCADE_BOSSES = {
-            "/images/arcade/boss1.png",
-            "/images/arcade/boss2.png",
-            "/images/arcade/boss3.png"
-    };
-
-    private static final String[] INFINITO_BOSSES = {
-            "/images/infinito/boss1.png"
-    };
+    // tamanho de decodificação do boss (acompanha adjustBossSize)
+    private SpriteSize bossSpriteSize = SpriteSize.BOSS;
 
+    // Paths formatados (suas pastas: images/matematica, images/arcade, images/infinito)
     public GamePane(Game game, Main mainApp, Stage stage) {
         this.game = game;
         this.mainApp = mainApp;
         this.stage = stage;
-        game.setPane(this);
+        this.engine = new BattleEngine(game);
+        game.setListener(this);
 
         // ---------- Estilos básicos ----------
         this.setStyle("-fx-background-color: #7fe6e6;");
@@ -106,7 +108,10 @@ public class GamePane extends BorderPane {
                         "-fx-border-color: #00000055; -fx-border-width: 4; -fx-padding: 8; -fx-font-size: 18;"
         );
         // Permite submeter a resposta pressionando Enter no TextField
-        answerField.setOnAction(e -> btnSubmit.fire());
+        answerField.setOnAction(e -> {
+            enterPressed = true;
+            btnSubmit.fire();
+        });
 
         btnSubmit.setStyle("-fx-font-size: 14px;");
         VBox topBox = new VBox(10, questionBox, answerField, btnSubmit);
@@ -141,13 +146,14 @@ public class GamePane extends BorderPane {
         animalSelectionBox.setSpacing(6);
         animalSelectionBox.setStyle("-fx-background-color: transparent;");
         animalSelectionBox.setMaxWidth(420); // limitar largura total do seletor (não invade área do boss)
+        animalSelectionBox.setAlignment(Pos.CENTER_LEFT);
 
         VBox leftGroup = new VBox(8, playerPortraitBox, animalSelectionBox);
         leftGroup.setAlignment(Pos.BOTTOM_LEFT);
         leftGroup.setPadding(new Insets(0,0,18,18));
 
         // ---------- Boss (lado direito inferior) ----------
-        // Default boss size (will be adjusted for modes via adjustBossSizeForMode)
+        // Default boss size (will be adjusted for modes via adjustBossSize)
         bossImage.setFitWidth(260);
         bossImage.setFitHeight(180);
         bossImage.setPreserveRatio(true);
@@ -177,7 +183,7 @@ public class GamePane extends BorderPane {
         gameContent.setAlignment(Pos.TOP_CENTER);
 
         // ---------- Botão de pause (imagem) ----------
-        Image pauseIconImg = loadImageOrPlaceholder("/images/icons/pause.png");
+        Image pauseIconImg = loadImageOrPlaceholder("/images/icons/pause.png", SpriteSize.ICON);
         if (pauseIconImg != null) {
             ImageView pauseIcon = new ImageView(pauseIconImg);
             pauseIcon.setFitWidth(28);
@@ -193,8 +199,8 @@ public class GamePane extends BorderPane {
 
         // ---------- Background de batalha ----------
         this.setStyle("-fx-background-color: transparent;");
-        Image bg = loadImageOrPlaceholder("/images/backgrounds/battle_bg.png");
-        if (bg == null) bg = loadImageOrPlaceholder("/images/BackgroundLutas.png");
+        Image bg = loadImageOrPlaceholder("/images/backgrounds/battle_bg.png", SpriteSize.BACKGROUND);
+        if (bg == null) bg = loadImageOrPlaceholder("/images/BackgroundLutas.png", SpriteSize.BACKGROUND);
         if (bg != null) {
             ImageView bgView = new ImageView(bg);
             bgView.setPreserveRatio(false);
@@ -240,7 +246,7 @@ public class GamePane extends BorderPane {
         // listeners / init
         btnSubmit.setOnAction(e -> {}); // será setado por nextTurn
         loadPlaceholders();             // carrega player & placeholder, não sobrescreve boss real
-        syncInitialBossImage();         // garante boss correto conforme game.mode/current state
+        syncInitialBossImage();         // garante boss correto conforme o modo/estado atual
         updateAll();
         updateAnimalSelection();
         startGame();
@@ -290,6 +296,7 @@ public class GamePane extends BorderPane {
         btnResume.setOnAction(e -> hidePauseOverlay());
         btnMenu.setOnAction(e -> {
             hidePauseOverlay();
+            if (recorder != null) recorder.menu();
             backToMenu();
         });
 
@@ -302,6 +309,7 @@ public class GamePane extends BorderPane {
     }
 
     private void showPauseOverlay() {
+        if (recorder != null) recorder.pause();
         gameActive = false;
         pauseOverlay.setVisible(true);
         pauseOverlay.setMouseTransparent(false);
@@ -311,6 +319,7 @@ public class GamePane extends BorderPane {
     }
 
     private void hidePauseOverlay() {
+        if (recorder != null && pauseOverlay.isVisible()) recorder.resume();
         pauseOverlay.setVisible(false);
         pauseOverlay.setMouseTransparent(true);
         pauseOverlay.setManaged(false);
@@ -320,10 +329,10 @@ public class GamePane extends BorderPane {
     // carrega apenas player e placeholder; não pré-carrega boss do outro modo
     private void loadPlaceholders() {
         try {
-            Image playerImg = loadImageOrPlaceholder("/images/player.png");
+            Image playerImg = loadImageOrPlaceholder("/images/player.png", SpriteSize.PLAYER);
             if (playerImg != null) basePlayerImage.setImage(playerImg);
 
-            Image bossPlaceholder = loadImageOrPlaceholder("/images/bosses/placeholder.png");
+            Image bossPlaceholder = loadImageOrPlaceholder("/images/bosses/placeholder.png", bossSpriteSize);
             if (bossPlaceholder != null) bossImage.setImage(bossPlaceholder);
         } catch (Exception e) {
             System.err.println("Erro ao carregar imagens: " + e.getMessage());
@@ -333,112 +342,81 @@ public class GamePane extends BorderPane {
     // sincroniza a imagem do boss logo após o GamePane ser criado (cobre o caso Game.spawnBoss() já ter sido chamado)
     private void syncInitialBossImage() {
         if (game == null) return;
-        String mode = game.mode != null ? game.mode : "Matematica";
-        int idx;
-        switch (mode) {
-            case "Matematica":
-                idx = game.animals != null && game.currentAnimal != null ? game.animals.indexOf(game.currentAnimal) + 1 : 1;
-                if (idx < 1) idx = 1;
-                if (idx > MATEMATICA_BOSSES.length) idx = MATEMATICA_BOSSES.length;
-                setBossImageForMode("Matematica", idx);
-                break;
-            case "Arcade":
-                idx = Math.max(1, Math.min(game.arcadeStage + 1, ARCADE_BOSSES.length));
-                setBossImageForMode("Arcade", idx);
-                break;
-            case "Infinito":
-                setBossImageForMode("Infinito", 1);
-                break;
-            default:
-                setBossImageForMode("Matematica", 1);
-        }
+        setBossImageForMode(game.getMode(), game.rules().bossSpriteIndex(game));
     }
 
-    private Image loadImageOrPlaceholder(String path) {
-        if (path == null) return null;
-        InputStream in = getClass().getResourceAsStream(path);
-        if (in != null) return new Image(in);
-        String alt = path.startsWith("/") ? path.substring(1) : "/" + path;
-        InputStream in2 = getClass().getResourceAsStream(alt);
-        if (in2 != null) return new Image(in2);
-        URL res = getClass().getResource(path);
-        if (res == null) res = getClass().getResource(alt);
-        if (res == null) {
-            System.err.println("loadImageOrPlaceholder: recurso não encontrado: " + path + " (tentadas também: " + alt + ")");
-            return null;
-        }
-        try {
-            return new Image(res.openStream());
-        } catch (Exception ex) {
-            System.err.println("Erro ao abrir imagem: " + ex.getMessage());
-            return null;
-        }
+    // imagens passam pelo cache global: cada recurso é decodificado uma única vez por processo,
+    // já no tamanho do local onde será exibido
+    private Image loadImageOrPlaceholder(String path, SpriteSize size) {
+        return ImageCache.get(path, size);
+    }
+
+    // Usa o sprite do atlas (viewport sobre a imagem única) quando existir; senão carrega o arquivo avulso
+    private boolean setSprite(ImageView view, String path, SpriteSize size) {
+        if (SpriteAtlas.apply(view, path)) return true;
+        Image img = loadImageOrPlaceholder(path, size);
+        if (img == null) return false;
+        view.setViewport(null);
+        view.setImage(img);
+        return true;
     }
 
     private void trySetBossImage(String resourcePath) {
-        Image img = loadImageOrPlaceholder(resourcePath);
-        if (img != null) {
-            bossImage.setImage(img);
-        } else {
-            System.err.println("trySetBossImage: imagem não encontrada em: " + resourcePath);
-            Image fallback = loadImageOrPlaceholder("/images/bosses/placeholder.png");
-            if (fallback != null) bossImage.setImage(fallback);
+        if (!setSprite(bossImage, resourcePath, bossSpriteSize)) {
+            // ausências ficam no cache negativo do ImageCache (o aviso sai uma vez só)
+            setSprite(bossImage, "/images/bosses/placeholder.png", bossSpriteSize);
         }
     }
 
-    // Ajusta o tamanho do boss conforme o modo (aumenta no modo Infinito)
-    private void adjustBossSizeForMode(String mode) {
-        if ("Infinito".equalsIgnoreCase(mode)) {
-            // maior no modo infinito — escolha valores que cabem na sua tela sem cobrir totalmente a arena
-            bossImage.setFitWidth(380);
-            bossImage.setFitHeight(260);
-            bossHealthBar.setPrefWidth(200);
-        } else {
-            // padrão/tradicional
-            bossImage.setFitWidth(260);
-            bossImage.setFitHeight(180);
-            bossHealthBar.setPrefWidth(140);
-        }
+    // Ajusta o tamanho do boss conforme o modo (o chefe do Infinito é maior)
+    private void adjustBossSize(SpriteSize size) {
+        bossSpriteSize = size;
+        bossImage.setFitWidth(bossSpriteSize.width);
+        bossImage.setFitHeight(bossSpriteSize.height);
+        // barra acompanha o chefe maior sem cobrir totalmente a arena
+        bossHealthBar.setPrefWidth(size == SpriteSize.BOSS_INFINITO ? 200 : 140);
+    }
+
+    // sprite index (1..n) do conjunto de chefes do modo — ajusta o tamanho antes de setar a imagem
+    public void setBossImageForMode(Mode mode, int index) {
+        if (mode == null) return;
+        GameMode rules = mode.rules;
+        adjustBossSize(rules.bossSize());
+        String[] sprites = rules.bossSprites();
+        if (index < 1 || index > sprites.length) index = 1;
+        trySetBossImage(sprites[index - 1]);
     }
 
-    // MATEMATICA
-    public void setBossImageByIndex(int index) {
-        if (index < 1 || index > MATEMATICA_BOSSES.length) index = 1;
-        String path = MATEMATICA_BOSSES[index - 1];
-        trySetBossImage(path);
+    @Override
+    public void onBossSpawned(Mode mode, int spriteIndex) {
+        updateBossHealth();
+        setBossImageForMode(mode, spriteIndex);
     }
 
-    // ARCADE (usa array ARCADE_BOSSES)
-    public void setBossImageByArcadeIndex(int index) {
-        if (index < 1 || index > ARCADE_BOSSES.length) index = 1;
-        String path = ARCADE_BOSSES[index - 1];
-        trySetBossImage(path);
+    @Override
+    public void onAnimalUnlocked(Animal animal) {
+        showCenteredMessage("Novo animal desbloqueado:\n" + animal.name, 2.2);
+        updateAnimalSelection();
     }
 
-    // GENERIC — agora ajusta tamanho antes de setar a imagem
-    public void setBossImageForMode(String mode, int index) {
-        if (mode == null) return;
-        adjustBossSizeForMode(mode); // <-- muda o tamanho do boss conforme o modo (Infinito maior)
-        switch (mode) {
-            case "Matematica" -> setBossImageByIndex(index);
-            case "Arcade" -> setBossImageByArcadeIndex(index);
-            case "Infinito" -> {
-                int idx = Math.max(1, Math.min(index, INFINITO_BOSSES.length));
-                trySetBossImage(INFINITO_BOSSES[idx - 1]);
-            }
-            default -> {}
-        }
+    @Override
+    public void onBossDefeated() {
+        showCenteredMessage("Você derrotou o chefe!", 1.8);
     }
 
+    @Override
+    public void onGameOver() {
+        disableTurns();
+    }
+
+    @Override
     public void onModeVictory() {
         if (game == null) return;
-        String mode = game.mode != null ? game.mode : "MODO";
-        if ("Matematica".equalsIgnoreCase(mode) || "Arcade".equalsIgnoreCase(mode)) {
-            showCenteredMessage("VOCÊ VENCEU O MODO " + mode.toUpperCase() + "!", 3.0);
-            PauseTransition t = new PauseTransition(Duration.seconds(3.6));
-            t.setOnFinished(e -> backToMenu());
-            t.play();
-        }
+        // só modos com fim (Matemática, Arcade) chegam aqui
+        showCriticalMessage("VOCÊ VENCEU O MODO " + game.getMode().label.toUpperCase() + "!", 3.0);
+        PauseTransition t = new PauseTransition(Duration.seconds(3.6));
+        t.setOnFinished(e -> backToMenu());
+        t.play();
     }
 
     private void updatePlayerPortrait() {
@@ -451,9 +429,7 @@ public class GamePane extends BorderPane {
                 case "tigre" -> "/images/tigre.png";
                 default -> "/images/animals/placeholder.png";
             };
-            Image img = loadImageOrPlaceholder(imgPath);
-            if (img != null) {
-                animalSideImage.setImage(img);
+            if (setSprite(animalSideImage, imgPath, SpriteSize.PORTRAIT)) {
                 animalSideImage.setVisible(true);
             }
         } else {
@@ -472,21 +448,47 @@ public class GamePane extends BorderPane {
     }
 
     private void backToMenu() {
-        VBox menu = mainApp.criarMenu(stage);
-        double w = 800, h = 600;
-        if (stage.getScene() != null) {
-            w = stage.getScene().getWidth();
-            h = stage.getScene().getHeight();
-        } else {
-            w = stage.getWidth() > 0 ? stage.getWidth() : w;
-            h = stage.getHeight() > 0 ? stage.getHeight() : h;
-        }
-        menu.setPrefSize(w, h);
-        Scene menuScene = new Scene(menu, w, h);
-        stage.setScene(menuScene);
-        stage.setTitle("SafeMath 2D - Menu");
+        stopRecording();
+        if (mainApp == null) return;
+        mainApp.recordScore(game);
+        mainApp.discardProgress();
+        mainApp.showMenu(stage);
+    }
+
+    public void setRecorder(InputRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // fecha a gravação com o estado atual da partida (saída pelo menu, fim de jogo ou janela fechada)
+    public void stopRecording() {
+        if (recorder == null) return;
+        recorder.close(game);
+        System.out.println("Gravação salva em " + recorder.file());
+        recorder = null;
+    }
+
+    // ----- entradas reproduzidas pelo ReplayDriver (mesmo caminho dos eventos de mouse/teclado) -----
+
+    void replayCardClick(int animalIndex) {
+        if (animalIndex >= 0 && animalIndex < game.animals.size()) onAnimalCardClicked(game.animals.get(animalIndex));
     }
 
+    void replayAnswer(String text, long latencyNanos, boolean enter) {
+        answerField.setText(text);
+        replayLatencyNanos = latencyNanos;
+        enterPressed = enter;
+        btnSubmit.fire();
+    }
+
+    void replayPause() {
+        showPauseOverlay();
+    }
+
+    void replayResume() {
+        hidePauseOverlay();
+    }
+
+    @Override
     public void log(String text) {
         // intentionally empty to avoid bottom log UI
     }
@@ -512,12 +514,8 @@ public class GamePane extends BorderPane {
 
     private double currentBossProgress() {
         if (game.currentBoss == null) return 0;
-        double vidaMax = 1.0;
-        switch (game.mode) {
-            case "Matematica" -> vidaMax = game.currentAnimal.force * 3.0;
-            case "Arcade" -> vidaMax = game.currentBoss.maxHealth;
-            case "Infinito" -> vidaMax = 999999;
-        }
+        // vida cheia vem das regras do modo (Game.spawnBoss)
+        double vidaMax = Math.max(1, game.currentBoss.maxHealth);
         return Math.max(0, (double) game.currentBoss.health / vidaMax);
     }
 
@@ -531,38 +529,58 @@ public class GamePane extends BorderPane {
     }
 
     public void updateAnimalSelection() {
-        animalSelectionBox.getChildren().clear();
-        animalSelectionBox.setAlignment(Pos.CENTER_LEFT);
-
-        List<Animal> available = new ArrayList<>();
-        if ("Matematica".equals(game.mode)) {
-            int index = game.animals.indexOf(game.currentAnimal);
-            for (int i = 0; i <= index; i++) available.add(game.animals.get(i));
-        } else {
-            available.addAll(game.animals);
-        }
+        List<Animal> available = game.availableAnimals();
 
         if (selectedAnimal == null && !available.isEmpty()) selectedAnimal = available.get(0);
-        if (selectedAnimal != null && selectedAnimal.cooldown > 0) {
+        if (selectedAnimal != null && !selectedAnimal.canAttack()) {
             lockedAnimal = selectedAnimal;
-            selectedAnimal = findPreviousAvailable(selectedAnimal, available);
+            selectedAnimal = game.findPreviousAvailable(selectedAnimal);
         }
 
+        // só cria nós para animais recém-desbloqueados; os demais apenas são atualizados
         for (Animal a : available) {
-            Pane card = buildAnimalCard(a);
-            animalSelectionBox.getChildren().add(card);
+            AnimalCard card = animalCards.get(a);
+            if (card == null) {
+                card = buildAnimalCard(a);
+                animalCards.put(a, card);
+                animalSelectionBox.getChildren().add(card.root);
+            }
+            refreshAnimalCard(a, card);
         }
 
         updatePlayerPortrait();
     }
 
-    // Substitua este método se quiser ajustes adicionais (largura, fonte, badge)
-    private Pane buildAnimalCard(Animal a) {
-        ImageView iv = new ImageView();
-        iv.setFitWidth(44);
-        iv.setFitHeight(44);
-        iv.setPreserveRatio(true);
+    // Nós de um card, guardados para o turno só alterar o que mudou
+    private static final class AnimalCard {
+        final StackPane root;
+        final Label badge;
+        boolean selected = false;
+
+        AnimalCard(StackPane root, Label badge) {
+            this.root = root;
+            this.badge = badge;
+        }
+    }
+
+    private void refreshAnimalCard(Animal a, AnimalCard card) {
+        // cooldown badge (top-right) — aparece somente se cooldown > 0
+        int cooldown = a.cooldown();
+        boolean emCooldown = cooldown > 0;
+        if (emCooldown) card.badge.setText(String.valueOf(cooldown));
+        card.badge.setVisible(emCooldown);
+        card.root.setOpacity(emCooldown ? 0.75 : 1.0); // levemente esmaecido quando em cooldown
+
+        // aplica borda azul quando selecionado (estilo só é trocado quando a seleção muda)
+        boolean selecionado = selectedAnimal != null && selectedAnimal.equals(a);
+        if (selecionado != card.selected) {
+            card.root.setStyle(selecionado ? CARD_SELECTED_STYLE : "");
+            card.selected = selecionado;
+        }
+    }
 
+    // Substitua este método se quiser ajustes adicionais (largura, fonte, badge)
+    private AnimalCard buildAnimalCard(Animal a) {
         String imgPath = switch (normalizeName(a.name)) {
             case "coelho" -> "/images/coelho.png";
             case "gato" -> "/images/gato.png";
@@ -571,8 +589,15 @@ public class GamePane extends BorderPane {
             case "tigre" -> "/images/tigre.png";
             default -> "/images/placeholder.png";
         };
-        Image img = loadImageOrPlaceholder(imgPath);
-        if (img != null) iv.setImage(img);
+        ImageView iv = SpriteAtlas.view(imgPath);
+        if (iv == null) {
+            iv = new ImageView();
+            Image img = loadImageOrPlaceholder(imgPath, SpriteSize.CARD);
+            if (img != null) iv.setImage(img);
+        }
+        iv.setFitWidth(SpriteSize.CARD.width);
+        iv.setFitHeight(SpriteSize.CARD.height);
+        iv.setPreserveRatio(true);
 
         // label com apenas o nome (sem "(CD: x)")
         Label name = new Label(a.name);
@@ -596,64 +621,42 @@ public class GamePane extends BorderPane {
         cardStack.setPrefWidth(110);
         cardStack.setMaxWidth(110);
 
-        // cooldown badge (top-right) — aparece somente se cooldown > 0
-        if (a.cooldown > 0) {
-            Label badge = new Label(String.valueOf(a.cooldown));
-            badge.setStyle(
-                    "-fx-background-color: #ff6b6b; -fx-text-fill: white; -fx-font-size: 10px; -fx-font-weight: bold;" +
-                            "-fx-padding: 2 6; -fx-background-radius: 10;"
-            );
-            StackPane.setAlignment(badge, Pos.TOP_RIGHT);
-            StackPane.setMargin(badge, new Insets(6, 6, 0, 0));
-            cardStack.getChildren().add(badge);
-            cardStack.setOpacity(0.75); // levemente esmaecido quando em cooldown
-        } else {
-            cardStack.setOpacity(1.0);
-        }
-
-        // aplica borda azul quando selecionado
-        if (selectedAnimal != null && selectedAnimal.equals(a)) {
-            cardStack.setStyle("-fx-background-color: transparent; -fx-border-color: #3b82f6; -fx-border-width: 3; -fx-border-radius: 6; -fx-background-radius: 6;");
-        }
+        // cooldown badge (top-right) — fica no card e só é mostrado enquanto cooldown > 0
+        Label badge = new Label();
+        badge.setStyle(
+                "-fx-background-color: #ff6b6b; -fx-text-fill: white; -fx-font-size: 10px; -fx-font-weight: bold;" +
+                        "-fx-padding: 2 6; -fx-background-radius: 10;"
+        );
+        badge.setVisible(false);
+        StackPane.setAlignment(badge, Pos.TOP_RIGHT);
+        StackPane.setMargin(badge, new Insets(6, 6, 0, 0));
+        cardStack.getChildren().add(badge);
 
         // cursor pointer para indicar clicável
         cardStack.setCursor(Cursor.HAND);
 
         // clique no card: seleciona (se não estiver em cooldown)
-        cardStack.addEventHandler(MouseEvent.MOUSE_CLICKED, ev -> {
-            if (a.cooldown > 0) {
-                showCenteredToast(a.name + " em cooldown", 1.0);
-                return;
-            }
-            selectedAnimal = a;
-            if (lockedAnimal == a) lockedAnimal = null;
-            updateAnimalSelection();   // rebuild cards to update border visuals
-            updatePlayerPortrait();    // atualiza animal ao lado do player
-            showCenteredToast("Selecionado: " + a.name, 0.9);
-        });
+        cardStack.addEventHandler(MouseEvent.MOUSE_CLICKED, ev -> onAnimalCardClicked(a));
 
-        return cardStack;
+        return new AnimalCard(cardStack, badge);
     }
 
-    private Animal findPreviousAvailable(Animal from, List<Animal> available) {
-        int idx = available.indexOf(from);
-        if (idx == -1) {
-            return game.currentAnimal;
-        }
-        for (int i = idx - 1; i >= 0; i--) {
-            Animal a = available.get(i);
-            if (a.cooldown == 0) return a;
-        }
-        for (int i = idx + 1; i < available.size(); i++) {
-            Animal a = available.get(i);
-            if (a.cooldown == 0) return a;
+    private void onAnimalCardClicked(Animal a) {
+        if (recorder != null) recorder.cardClick(a.index);
+        if (!a.canAttack()) {
+            showCenteredToast(a.name + " em cooldown", 1.0);
+            return;
         }
-        return game.currentAnimal != null ? game.currentAnimal : available.get(0);
+        selectedAnimal = a;
+        if (lockedAnimal == a) lockedAnimal = null;
+        updateAnimalSelection();   // atualiza bordas/badges dos cards existentes
+        updatePlayerPortrait();    // atualiza animal ao lado do player
+        showCenteredToast("Selecionado: " + a.name, 0.9);
     }
 
     private void checkLockedAnimalRelease() {
         if (lockedAnimal == null) return;
-        if (lockedAnimal.cooldown <= 0) {
+        if (lockedAnimal.canAttack()) {
             selectedAnimal = lockedAnimal;
             lockedAnimal = null;
             updateAnimalSelection();
@@ -662,86 +665,16 @@ public class GamePane extends BorderPane {
     }
 
     public void showCenteredMessage(String msg, double seconds) {
-        Label label = new Label(msg);
-        label.setStyle(
-                "-fx-background-color: rgba(0,0,0,0.85); -fx-text-fill: white; -fx-padding: 18 28; " +
-                        "-fx-background-radius: 10; -fx-font-size: 12px; -fx-font-weight: bold; -fx-alignment: center;"
-        );
-        label.setWrapText(true);
-        label.setOpacity(0);
-
-        centerMessageLayer.getChildren().add(label);
-        StackPane.setAlignment(label, Pos.CENTER);
-
-        centerMessageLayer.setMouseTransparent(false);
-        centerMessageLayer.setManaged(true);
-        centerMessageLayer.toFront();
-        label.toFront();
-
-        FadeTransition in = new FadeTransition(Duration.millis(220), label);
-        in.setFromValue(0);
-        in.setToValue(1);
-
-        PauseTransition hold = new PauseTransition(Duration.seconds(seconds));
-
-        FadeTransition out = new FadeTransition(Duration.millis(240), label);
-        out.setFromValue(1);
-        out.setToValue(0);
-        out.setOnFinished(ev -> {
-            centerMessageLayer.getChildren().remove(label);
-            if (centerMessageLayer.getChildren().isEmpty()) {
-                centerMessageLayer.setMouseTransparent(true);
-                centerMessageLayer.setManaged(false);
-            }
-        });
-
-        in.setOnFinished(ev -> hold.play());
-        hold.setOnFinished(ev -> out.play());
-        in.play();
+        messages.show(msg, seconds, MessageOverlay.Priority.MESSAGE);
     }
 
-    public void showCenteredToast(String msg, double seconds) {
-        Label label = new Label(msg);
-        label.setStyle(
-                "-fx-background-color: rgba(0,0,0,0.75); -fx-text-fill: white; -fx-padding: 10 16; " +
-                        "-fx-background-radius: 8; -fx-font-size: 12px; -fx-font-weight: bold;"
-        );
-        label.setWrapText(true);
-        label.setOpacity(0);
-
-        centerMessageLayer.getChildren().add(label);
-        StackPane.setAlignment(label, Pos.CENTER);
-
-        centerMessageLayer.setMouseTransparent(true);
-        centerMessageLayer.setManaged(true);
-        centerMessageLayer.toFront();
-        label.toFront();
-
-        FadeTransition in = new FadeTransition(Duration.millis(160), label);
-        in.setFromValue(0);
-        in.setToValue(1);
-
-        PauseTransition hold = new PauseTransition(Duration.seconds(seconds));
-
-        FadeTransition out = new FadeTransition(Duration.millis(200), label);
-        out.setFromValue(1);
-        out.setToValue(0);
-        out.setOnFinished(ev -> {
-            centerMessageLayer.getChildren().remove(label);
-            if (centerMessageLayer.getChildren().isEmpty()) {
-                centerMessageLayer.setMouseTransparent(true);
-                centerMessageLayer.setManaged(false);
-            }
-        });
-
-        in.setOnFinished(ev -> hold.play());
-        hold.setOnFinished(ev -> out.play());
-        in.play();
+    // derrota / vitória do modo: descarta toasts pendentes e passa na frente da fila
+    public void showCriticalMessage(String msg, double seconds) {
+        messages.show(msg, seconds, MessageOverlay.Priority.CRITICAL);
     }
 
-    private String formatAnswer(double a) {
-        if (Math.abs(a - Math.round(a)) < 0.0001) return String.valueOf((long)Math.round(a));
-        return String.format("%.3f", a).replace(',', '.');
+    public void showCenteredToast(String msg, double seconds) {
+        messages.show(msg, seconds, MessageOverlay.Priority.TOAST);
     }
 
     private void nextTurn() {
@@ -751,10 +684,11 @@ public class GamePane extends BorderPane {
         String turno = game.isPlayerTurn() ? "ATAQUE" : "DEFESA";
         turnoLabel.setText(turno);
 
-        Question q = game.qGen.generate(game.difficultyForMode());
+        Question q = engine.nextQuestion();
         this.currentQuestion = q;
 
-        questionLabel.setText(currentQuestion.text);
+        questionLabel.setText(currentQuestion.text());
+        questionShownNanos = System.nanoTime();
 
         answerField.clear();
         answerField.requestFocus();
@@ -765,90 +699,62 @@ public class GamePane extends BorderPane {
     private void processAnswer(Question q) {
         if (q == null) return;
 
-        String textRaw = answerField.getText();
-        if (textRaw == null) textRaw = "";
-        String normalized = textRaw.trim().replace(',', '.');
+        // entrada inválida (vazia, letras...) conta como resposta errada
+        AnswerChecker.Outcome outcome = AnswerChecker.check(answerField.getText(), q);
+        boolean correct = outcome == AnswerChecker.Outcome.CORRECT;
 
-        boolean correct = false;
-        try {
-            double userAns = Double.parseDouble(normalized);
-            correct = Math.abs(userAns - q.answer) < 0.001;
-        } catch (NumberFormatException ignored) {
-            correct = false;
-        }
+        if (game.isPlayerTurn() && selectedAnimal == null) selectedAnimal = game.currentAnimal;
 
-        game.qGen.recordAnswer(correct);
+        // regras do turno ficam no BattleEngine; aqui só desenhamos o resultado
+        long latency = replayLatencyNanos >= 0 ? replayLatencyNanos : System.nanoTime() - questionShownNanos;
+        replayLatencyNanos = -1;
+        if (recorder != null) recorder.answer(answerField.getText(), latency, enterPressed);
+        enterPressed = false;
 
-        if (game.isPlayerTurn()) {
-            if (selectedAnimal == null) selectedAnimal = game.currentAnimal;
+        TurnResult r = engine.submitAnswer(selectedAnimal, q, correct, latency);
+        // fim de turno: save em segundo plano (apagado se a partida acabou)
+        if (mainApp != null) mainApp.saveProgress(game);
 
-            if (selectedAnimal.canAttack()) {
-                if (correct) {
-                    int dmg = selectedAnimal.force;
+        if (r.attackTurn) {
+            if (r.attacked && r.correct) {
+                showBossDamage(r.bossDamage);
+                updateAll();
 
-                    boolean bossDied = false;
-                    if (game.currentBoss != null) {
-                        game.currentBoss.takeDamage(dmg);
-                        bossDied = !game.currentBoss.isAlive();
-                    }
+                // animal entrou em cooldown: fica "locked" e o anterior disponível é selecionado
+                lockedAnimal = r.attacker;
+                selectedAnimal = game.findPreviousAvailable(lockedAnimal);
 
-                    showBossDamage(dmg);
+                if (r.bossDefeated) {
+                    // Ajuste: quando o chefe morre, o estado já foi atualizado (spawn do próximo chefe ocorre em checkBossDefeat)
+                    // e garantimos que a pergunta mude imediatamente para evitar a mesma questão repetida.
                     updateAll();
 
-                    selectedAnimal.cooldown = Math.max(1, (int) Math.round(selectedAnimal.force * 0.1));
-                    if (selectedAnimal.cooldown > 0) {
-                        lockedAnimal = selectedAnimal;
-                        List<Animal> available = new ArrayList<>();
-                        if ("Matematica".equals(game.mode)) {
-                            int index = game.animals.indexOf(game.currentAnimal);
-                            for (int i = 0; i <= index; i++) available.add(game.animals.get(i));
-                        } else {
-                            available.addAll(game.animals);
-                        }
-                        selectedAnimal = findPreviousAvailable(lockedAnimal, available);
-                    }
-
-                    if (bossDied) {
-                        // Ajuste: quando o chefe morre, atualizamos o estado (spawn do próximo chefe pode ocorrer em checkBossDefeat)
-                        // e garantimos que a pergunta mude imediatamente para evitar a mesma questão repetida.
-                        game.checkBossDefeat();
-                        updateAll();
-
-                        // Se o jogo não acabou / não voltou ao menu, geramos uma nova questão adequada ao novo estado.
-                        if (game.currentBoss != null && game.player.isAlive() && gameActive) {
-                            Question newQ = game.qGen.generate(game.difficultyForMode());
-                            this.currentQuestion = newQ;
-                            questionLabel.setText(newQ.text);
-                            answerField.clear();
-                            answerField.requestFocus();
-                            btnSubmit.setOnAction(e -> processAnswer(this.currentQuestion));
-                        }
-                        return;
+                    // Se o jogo não acabou / não voltou ao menu, geramos uma nova questão adequada ao novo estado.
+                    if (game.currentBoss != null && game.player.isAlive() && gameActive) {
+                        Question newQ = engine.nextQuestion();
+                        this.currentQuestion = newQ;
+                        questionLabel.setText(newQ.text());
+                        questionShownNanos = System.nanoTime();
+                        answerField.clear();
+                        answerField.requestFocus();
+                        btnSubmit.setOnAction(e -> processAnswer(this.currentQuestion));
                     }
-                } else {
-                    showCenteredMessage("ERRADO!\nResposta correta: " + formatAnswer(q.answer), 1.8);
+                    return;
                 }
+            } else if (r.attacked) {
+                showCenteredMessage("ERRADO!\nResposta correta: " + q.answer, 1.8);
             }
-            game.decrementAllCooldowns();
             checkLockedAnimalRelease();
             updateAnimalSelection();
         } else {
-            int maxDmg = switch (game.mode) {
-                case "Arcade" -> 50 + game.arcadeStage * 50;
-                case "Infinito" -> 20;
-                default -> 50;
-            };
-            int dmg = game.getRandomDamage(maxDmg);
-
-            if (correct) {
+            if (r.correct) {
                 showCenteredMessage("DEFESA PERFEITA!", 1.2);
             } else {
-                game.player.takeDamage(dmg);
-                showPlayerDamage(dmg);
-                showCenteredMessage("DEFESA FALHOU! Recebeu " + dmg + " de dano.\nResposta correta: " + formatAnswer(q.answer), 2.2);
+                showPlayerDamage(r.playerDamage);
+                showCenteredMessage("DEFESA FALHOU! Recebeu " + r.playerDamage + " de dano.\nResposta correta: " + q.answer, 2.2);
 
-                if (!game.player.isAlive()) {
-                    showCenteredMessage("DERROTADO", 3.0);
+                if (r.playerDefeated) {
+                    showCriticalMessage("DERROTADO", 3.0);
                     disableTurns();
                     PauseTransition t = new PauseTransition(Duration.seconds(3.6));
                     t.setOnFinished(ev -> backToMenu());
@@ -859,7 +765,6 @@ public class GamePane extends BorderPane {
         }
 
         updateAll();
-        game.togglePlayerTurn();
         nextTurn();
     }
 
@@ -0,0 +1,295 @@
+package com.safemath.game;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Modo servidor: uma máquina hospeda a sala inteira. Cada aluno abre http://127.0.0.1:PORTA/ no navegador
+// (ou fala JSON direto com a API) e ganha uma sessão própria (ServerSession), sem JavaFX.
+// Usa o HttpServer do JDK ouvindo só no loopback; cada requisição roda numa virtual thread.
+//
+// Uso: GameServer [--port 8080]
+//
+// API:
+//   POST   /api/session?mode=Matematica|Arcade|Infinito[&seed=N]   cria a sessão e devolve o estado
+//   GET    /api/session/{id}                                        estado atual (vida, animais, questão)
+//   POST   /api/session/{id}/answer   corpo: answer=42&animal=1     responde a questão atual
+//   DELETE /api/session/{id}                                        encerra a sessão
+//   GET    /api/stats                                               sessões e turnos por segundo
+public class GameServer {
+
+    // sessões sem acesso há mais que isso são descartadas (aluno fechou a aba)
+    private static final long IDLE_TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(30);
+    private static final int REPORT_SECONDS = 10;
+
+    private final Map<String, ServerSession> sessions = new ConcurrentHashMap<>();
+    private final LongAdder turns = new LongAdder();
+    private volatile double turnsPerSecond = 0;
+
+    private HttpServer http;
+    private ExecutorService executor;
+    private ScheduledExecutorService reporter;
+
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        for (int i = 0; i < args.length; i++) {
+            if ("--port".equals(args[i]) && i + 1 < args.length) {
+                port = Integer.parseInt(args[++i]);
+            } else {
+                System.err.println("Uso: GameServer [--port 8080]");
+                System.exit(1);
+            }
+        }
+        GameServer server = new GameServer();
+        server.start(port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("SafeMath servidor em http://127.0.0.1:" + server.port() + "/");
+    }
+
+    public void start(int port) throws IOException {
+        http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        http.setExecutor(executor);
+        http.createContext("/", this::handlePage);
+        http.createContext("/api/session", this::handleSession);
+        http.createContext("/api/stats", ex -> send(ex, 200, statsJson()));
+        http.start();
+
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "server-stats");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(new Runnable() {
+            private long lastTurns = 0;
+
+            @Override
+            public void run() {
+                long total = turns.sum();
+                turnsPerSecond = (total - lastTurns) / (double) REPORT_SECONDS;
+                lastTurns = total;
+                long now = System.nanoTime();
+                sessions.values().removeIf(s -> now - s.lastAccessNanos() > IDLE_TIMEOUT_NANOS);
+                if (!sessions.isEmpty()) {
+                    System.out.printf("Servidor: %d sessões, %.1f turnos/s%n", sessions.size(), turnsPerSecond);
+                }
+            }
+        }, REPORT_SECONDS, REPORT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public int port() {
+        return http.getAddress().getPort();
+    }
+
+    public void stop() {
+        if (http != null) http.stop(1);
+        if (reporter != null) reporter.shutdownNow();
+        if (executor != null) executor.shutdown();
+    }
+
+    private String statsJson() {
+        return "{\"sessions\":" + sessions.size()
+                + ",\"turns\":" + turns.sum()
+                + ",\"turnsPerSecond\":" + turnsPerSecond + "}";
+    }
+
+    private void handleSession(HttpExchange ex) throws IOException {
+        try {
+            String method = ex.getRequestMethod();
+            // /api/session, /api/session/{id} ou /api/session/{id}/answer
+            String[] parts = ex.getRequestURI().getPath().substring("/api/session".length()).split("/");
+            String id = parts.length > 1 ? parts[1] : "";
+            String action = parts.length > 2 ? parts[2] : "";
+
+            if (id.isEmpty()) {
+                if (!"POST".equals(method)) {
+                    send(ex, 405, "{\"error\":\"use POST para criar uma sessão\"}");
+                    return;
+                }
+                Map<String, String> params = parseForm(ex.getRequestURI().getRawQuery());
+                Mode mode = parseMode(params.get("mode"));
+                if (mode == null) {
+                    send(ex, 400, "{\"error\":\"modo inválido (Matematica, Arcade ou Infinito)\"}");
+                    return;
+                }
+                String seed = params.get("seed");
+                ServerSession s = new ServerSession(UUID.randomUUID().toString(), mode,
+                        seed != null ? Long.valueOf(seed) : null);
+                sessions.put(s.id, s);
+                send(ex, 201, s.stateJson());
+                return;
+            }
+
+            ServerSession s = sessions.get(id);
+            if (s == null) {
+                send(ex, 404, "{\"error\":\"sessão não encontrada\"}");
+                return;
+            }
+            if ("answer".equals(action) && "POST".equals(method)) {
+                Map<String, String> params = parseForm(readBody(ex));
+                String animal = params.get("animal");
+                String json = s.answerJson(params.getOrDefault("answer", ""),
+                        animal != null ? Integer.parseInt(animal) : -1);
+                turns.increment();
+                send(ex, 200, json);
+            } else if (action.isEmpty() && "GET".equals(method)) {
+                send(ex, 200, s.stateJson());
+            } else if (action.isEmpty() && "DELETE".equals(method)) {
+                sessions.remove(id);
+                send(ex, 200, "{\"closed\":" + ServerSession.quote(id) + "}");
+            } else {
+                send(ex, 405, "{\"error\":\"operação não suportada\"}");
+            }
+        } catch (NumberFormatException badNumber) {
+            send(ex, 400, "{\"error\":\"número inválido\"}");
+        }
+    }
+
+    // null se o modo não existir (ou não veio)
+    private static Mode parseMode(String mode) {
+        try {
+            return Mode.parse(mode);
+        } catch (IllegalArgumentException unknown) {
+            return null;
+        }
+    }
+
+    private static String readBody(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    // corpo application/x-www-form-urlencoded ou query string: a=1&b=2
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private void handlePage(HttpExchange ex) throws IOException {
+        if (!"/".equals(ex.getRequestURI().getPath())) {
+            send(ex, 404, "{\"error\":\"não encontrado\"}");
+            return;
+        }
+        byte[] body = PAGE.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void send(HttpExchange ex, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Página mínima: escolhe o modo, mostra vida/animais/questão e envia as respostas para a API
+    private static final String PAGE = """
+            <!DOCTYPE html>
+            <html lang="pt-BR">
+            <head>
+            <meta charset="utf-8">
+            <title>SafeMath</title>
+            <style>
+              body { font-family: Consolas, monospace; background: #0b3f2b; color: white; text-align: center; }
+              button { background: green; color: white; border: 0; border-radius: 8px; padding: 10px 20px; margin: 4px; }
+              button.sel { outline: 3px solid gold; }
+              button:disabled { opacity: 0.4; }
+              #question { font-size: 28px; margin: 20px; }
+              #msg { min-height: 2em; color: gold; }
+            </style>
+            </head>
+            <body>
+            <h1>SafeMath</h1>
+            <div id="menu">
+              <button onclick="start('Matematica')">Matemática</button>
+              <button onclick="start('Arcade')">Arcade</button>
+              <button onclick="start('Infinito')">Infinito</button>
+            </div>
+            <div id="game" hidden>
+              <p id="status"></p>
+              <div id="animals"></div>
+              <p id="turn"></p>
+              <div id="question"></div>
+              <form onsubmit="answer(); return false;">
+                <input id="answer" autocomplete="off" autofocus>
+                <button>Responder</button>
+              </form>
+              <p id="msg"></p>
+            </div>
+            <script>
+            let id = null, animal = -1;
+            async function start(mode) {
+              const r = await fetch('/api/session?mode=' + mode, {method: 'POST'});
+              const s = await r.json();
+              id = s.id; animal = -1;
+              document.getElementById('menu').hidden = true;
+              document.getElementById('game').hidden = false;
+              show(s);
+            }
+            async function answer() {
+              const input = document.getElementById('answer');
+              const body = 'answer=' + encodeURIComponent(input.value) + '&animal=' + animal;
+              const r = await fetch('/api/session/' + id + '/answer', {method: 'POST', body: body,
+                  headers: {'Content-Type': 'application/x-www-form-urlencoded'}});
+              const s = await r.json();
+              input.value = '';
+              if (s.turn && s.turn.attack) animal = s.turn.selected; // o servidor troca um animal em cooldown
+              let msg = s.outcome === 'CORRECT' ? 'CERTO!' : 'ERRADO! Resposta correta: ' + s.answer;
+              if (s.turn && s.turn.bossDamage) msg += ' Dano no chefe: ' + s.turn.bossDamage;
+              if (s.turn && s.turn.playerDamage) msg += ' Você recebeu ' + s.turn.playerDamage + ' de dano.';
+              if (s.events && s.events.length) msg += ' ' + s.events.join(' ');
+              document.getElementById('msg').textContent = msg;
+              show(s);
+            }
+            function show(s) {
+              document.getElementById('status').textContent = 'Modo ' + s.mode + ' | Vida: ' + s.player.hp + '/' + s.player.max
+                  + (s.boss ? ' | Chefe: ' + s.boss.hp + '/' + s.boss.max : '');
+              const box = document.getElementById('animals');
+              box.innerHTML = '';
+              s.animals.forEach((a, i) => {
+                if (!a.available) return;
+                const b = document.createElement('button');
+                b.textContent = a.name + ' (' + a.force + ')' + (a.cooldown > 0 ? ' ⏳' + a.cooldown : '');
+                b.disabled = a.cooldown > 0;
+                if (i === animal) b.className = 'sel';
+                b.onclick = () => { animal = i; show(s); };
+                box.appendChild(b);
+              });
+              document.getElementById('turn').textContent = s.finished ? 'FIM DE JOGO' : (s.playerTurn ? 'ATAQUE' : 'DEFESA');
+              document.getElementById('question').textContent = s.question || '';
+              document.getElementById('answer').focus();
+            }
+            </script>
+            </body>
+            </html>
+            """;
+}
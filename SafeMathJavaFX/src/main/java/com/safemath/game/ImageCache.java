@@ -0,0 +1,135 @@
+package com.safemath.game;
+
+import javafx.scene.image.Image;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+// Cache global de imagens decodificadas, compartilhado por todas as telas do processo.
+// A chave é o caminho do recurso + tamanho pedido; recursos ausentes ficam num cache
+// negativo para não repetir as buscas (nem o aviso no stderr) a cada turno. Imagens que falham
+// na decodificação (arquivo corrompido) não entram em nenhum dos dois: o erro é avisado e quem
+// chamou recebe null, como para um recurso ausente.
+public final class ImageCache {
+
+    // limite de imagens decodificadas mantidas (LRU)
+    private static final int MAX_ENTRIES = 48;
+
+    private static final Map<String, Image> images = new LinkedHashMap<>(32, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            if (size() > MAX_ENTRIES) {
+                evictions++;
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private static final Set<String> missing = new HashSet<>();
+
+    private static long hits = 0;
+    private static long misses = 0;
+    private static long evictions = 0;
+
+    private ImageCache() {}
+
+    // imagem no tamanho original do arquivo
+    public static Image get(String path) {
+        return get(path, 0, 0, true);
+    }
+
+    // imagem decodificada já no tamanho em que vai ser exibida
+    public static Image get(String path, SpriteSize size) {
+        return get(path, size.width, size.height, size.preserveRatio);
+    }
+
+    // Retorna a imagem do recurso (decodificando só na primeira vez) ou null se o recurso não existir
+    // ou não puder ser decodificado.
+    // width/height = 0 mantêm o tamanho original.
+    public static Image get(String path, double width, double height, boolean preserveRatio) {
+        if (path == null) return null;
+        String key = width > 0 || height > 0
+                ? path + "@" + (int) width + "x" + (int) height + (preserveRatio ? "" : "!")
+                : path;
+
+        synchronized (ImageCache.class) {
+            if (missing.contains(path)) {
+                hits++;
+                return null;
+            }
+            Image cached = images.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // decodifica fora do lock para não travar quem só quer ler o cache
+        Image img = load(path, width, height, preserveRatio);
+
+        if (img == null) return null;
+        synchronized (ImageCache.class) {
+            Image previous = images.putIfAbsent(key, img);
+            return previous != null ? previous : img;
+        }
+    }
+
+    static Image load(String path, double width, double height, boolean preserveRatio) {
+        InputStream in = ImageCache.class.getResourceAsStream(path);
+        String alt = path.startsWith("/") ? path.substring(1) : "/" + path;
+        if (in == null) in = ImageCache.class.getResourceAsStream(alt);
+        if (in == null) {
+            URL res = ImageCache.class.getResource(path);
+            if (res == null) res = ImageCache.class.getResource(alt);
+            if (res == null) {
+                System.err.println("ImageCache: recurso não encontrado: " + path + " (tentadas também: " + alt + ")");
+                synchronized (ImageCache.class) {
+                    missing.add(path);
+                }
+                return null;
+            }
+            try {
+                in = res.openStream();
+            } catch (Exception ex) {
+                System.err.println("Erro ao abrir imagem: " + ex.getMessage());
+                return null;
+            }
+        }
+        try (InputStream stream = in) {
+            // de um InputStream a imagem é decodificada no construtor, então isError() já vale aqui
+            Image img = width > 0 || height > 0
+                    ? new Image(stream, width, height, preserveRatio, true)
+                    : new Image(stream);
+            if (img.isError()) {
+                Exception cause = img.getException();
+                System.err.println("Erro ao decodificar imagem " + path + ": "
+                        + (cause != null ? cause.getMessage() : "formato inválido"));
+                return null;
+            }
+            return img;
+        } catch (Exception ex) {
+            System.err.println("Erro ao decodificar imagem " + path + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    public static synchronized long hits() { return hits; }
+    public static synchronized long misses() { return misses; }
+    public static synchronized long evictions() { return evictions; }
+
+    public static synchronized String stats() {
+        return "ImageCache[entradas=" + images.size() + ", ausentes=" + missing.size()
+                + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions + "]";
+    }
+
+    public static synchronized void clear() {
+        images.clear();
+        missing.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package com.safemath.game;
+
+// Infinito: um único chefe gigante que reaparece sempre; a partida só termina com a derrota do jogador.
+final class InfinitoMode implements GameMode {
+
+    private static final String[] BOSSES = {
+            "/images/infinito/boss1.png"
+    };
+
+    @Override
+    public int bossHealth(Game game) {
+        return 999999;
+    }
+
+    @Override
+    public String difficulty() {
+        return "infinito";
+    }
+
+    @Override
+    public int counterDamageMax(Game game) {
+        return 20;
+    }
+
+    @Override
+    public String[] bossSprites() {
+        return BOSSES;
+    }
+
+    @Override
+    public int bossSpriteIndex(Game game) {
+        return 1;
+    }
+
+    @Override
+    public SpriteSize bossSize() {
+        return SpriteSize.BOSS_INFINITO;
+    }
+
+    // Infinito não termina — apenas respawna
+    @Override
+    public void onBossDefeated(Game game) {
+        game.record(EventJournal.BOSS_DEFEATED, game.modeIndex(), 0, 0, 0);
+        if (game.listener != null) game.listener.log("🔁 Chefe re-spawn (Infinito)");
+        game.spawnBoss();
+    }
+}
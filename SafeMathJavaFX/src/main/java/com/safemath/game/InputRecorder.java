@@ -0,0 +1,144 @@
+package com.safemath.game;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+// Grava o que o aluno fez numa partida (cliques nos cards, respostas com Enter ou botão, pausa/retomada),
+// com o instante de cada ação e a semente do Game (de onde saem o QuestionGenerator e os danos).
+// O ReplayDriver reproduz o arquivo num GamePane de verdade.
+//
+// Arquivo de texto, uma ação por linha ("ms" = milissegundos desde o início da partida):
+//   SMREC 1
+//   seed <semente>
+//   mode <Matematica|Arcade|Infinito>
+//   <ms> CARD <índice do animal>
+//   <ms> ANSWER <tempo de resposta em ns> <1 se Enter, 0 se botão> <texto digitado até o fim da linha>
+//   <ms> PAUSE | <ms> RESUME | <ms> MENU
+//   <ms> END <vida do jogador> <vida do chefe> <chefes derrotados>
+// Toda a E/S (criar a pasta e o arquivo, gravar, fechar) fica numa thread própria; a thread do JavaFX só monta
+// a linha e nunca espera o disco. Só as MAX_RECORDINGS gravações mais novas ficam na pasta (quiosques jogam
+// o dia inteiro e uma gravação por partida enche o disco).
+public final class InputRecorder {
+    public static final String HEADER = "SMREC 1";
+    private static final int MAX_RECORDINGS = 200;
+
+    private final long startNanos = System.nanoTime();
+    private final Path file;
+    // não é daemon: ao fechar o programa a JVM espera a fila de escrita terminar (close() encerra a thread)
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> new Thread(r, "input-recorder"));
+    private boolean closed;
+    private BufferedWriter out; // só na thread de escrita; null se o arquivo não pôde ser criado
+
+    private InputRecorder(Path file, Game game) {
+        this.file = file;
+        String header = HEADER + "\nseed " + game.getSeed() + "\nmode " + game.getMode() + "\n";
+        writer.execute(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                out.write(header);
+            } catch (IOException ex) {
+                System.err.println("InputRecorder: gravação desligada, erro ao criar " + file + ": " + ex.getMessage());
+                out = null;
+            }
+            deleteOldRecordings(file.getParent());
+        });
+    }
+
+    // nova gravação em dir/recording-<semente>-<horário>.txt (o arquivo é criado na thread de escrita)
+    public static InputRecorder start(Path dir, Game game) {
+        return new InputRecorder(dir.resolve("recording-" + game.getSeed() + "-" + System.currentTimeMillis() + ".txt"), game);
+    }
+
+    // apaga as gravações mais antigas além das MAX_RECORDINGS mais novas
+    private static void deleteOldRecordings(Path dir) {
+        List<Path> recordings = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith("recording-") && name.endsWith(".txt");
+            }).forEach(recordings::add);
+            if (recordings.size() <= MAX_RECORDINGS) return;
+            recordings.sort(Comparator.comparingLong(InputRecorder::modifiedMillis).reversed());
+            for (int i = MAX_RECORDINGS; i < recordings.size(); i++) Files.deleteIfExists(recordings.get(i));
+        } catch (IOException ex) {
+            System.err.println("InputRecorder: erro ao apagar gravações antigas: " + ex.getMessage());
+        }
+    }
+
+    private static long modifiedMillis(Path p) {
+        try {
+            return Files.getLastModifiedTime(p).toMillis();
+        } catch (IOException ex) {
+            return 0; // sumiu no meio: vai para o fim da lista
+        }
+    }
+
+    public Path file() {
+        return file;
+    }
+
+    public void cardClick(int animalIndex) {
+        write("CARD " + animalIndex);
+    }
+
+    public void answer(String text, long latencyNanos, boolean enter) {
+        // o texto vai até o fim da linha; quebras de linha (coladas) viram espaço
+        String clean = text == null ? "" : text.replace('\n', ' ').replace('\r', ' ');
+        write("ANSWER " + latencyNanos + " " + (enter ? 1 : 0) + " " + clean);
+    }
+
+    public void pause() {
+        write("PAUSE");
+    }
+
+    public void resume() {
+        write("RESUME");
+    }
+
+    public void menu() {
+        write("MENU");
+    }
+
+    // fim da partida: estado final para o replay conferir, e fecha o arquivo (na thread de escrita, sem esperar)
+    public void close(Game game) {
+        synchronized (this) {
+            if (closed) return;
+            write("END " + game.player.getHealth() + " " + (game.currentBoss != null ? game.currentBoss.health : 0)
+                    + " " + game.bossesDefeated);
+            closed = true;
+        }
+        writer.execute(() -> {
+            if (out == null) return;
+            try {
+                out.close();
+            } catch (IOException ex) {
+                System.err.println("InputRecorder: erro ao fechar " + file + ": " + ex.getMessage());
+            }
+        });
+        writer.shutdown();
+    }
+
+    private synchronized void write(String event) {
+        if (closed) return;
+        String line = (System.nanoTime() - startNanos) / 1_000_000 + " " + event + "\n";
+        writer.execute(() -> {
+            if (out == null) return;
+            try {
+                out.write(line);
+                out.flush();
+            } catch (IOException ex) {
+                System.err.println("InputRecorder: erro ao gravar " + file + ": " + ex.getMessage());
+            }
+        });
+    }
+}
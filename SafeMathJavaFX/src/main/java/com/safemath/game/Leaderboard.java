@@ -0,0 +1,526 @@
+package com.safemath.game;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+// Ranking persistente por jogador e por modo (chefes derrotados, dano causado, maior sequência de acertos).
+//
+// Arquivos no diretório:
+//   scores.log    todas as partidas, só acrescentadas: [tamanho int][dados][CRC32 int]. Um final cortado por
+//                 travamento é detectado pelo CRC e descartado na abertura.
+//   mode-N.idx    partidas do modo N ordenadas da melhor para a pior, registros de 64 bytes, mapeado em memória.
+//                 Cabeçalho: "SMLI", versão, quantidade, posição do scores.log já incluída no índice.
+// Partidas novas ficam numa lista ordenada em memória (delta) até a compactação, feita em segundo plano,
+// juntar o delta com o índice num arquivo novo (temporário + move atômico).
+// Top-K lê os K primeiros registros; a posição de um placar é uma busca binária no índice + o delta: O(log n).
+// Gravar no log e compactar acontecem na thread do Leaderboard; submit() nunca espera E/S. As partidas
+// pendentes são gravadas juntas com um único force() (várias chegando ao mesmo tempo custam um fsync só).
+public final class Leaderboard implements Closeable {
+
+    public static final int MODES = 3;
+    private static final int INDEX_MAGIC = 0x534D4C49; // "SMLI"
+    private static final short INDEX_VERSION = 1;
+    private static final int INDEX_HEADER = 32;
+    private static final int ENTRY_SIZE = 64;
+    private static final int NAME_BYTES = 31;
+    // partidas no delta que disparam uma compactação
+    private static final int COMPACT_THRESHOLD = 512;
+
+    // Resultado de uma partida. Ordem: mais chefes, mais dano, maior sequência, mais antiga primeiro.
+    public static final class Score implements Comparable<Score> {
+        public final String player;
+        public final int mode;
+        public final int bossesDefeated;
+        public final long damageDealt;
+        public final int longestStreak;
+        public final long time;
+        public final long seed;
+
+        public Score(String player, int mode, int bossesDefeated, long damageDealt, int longestStreak,
+                     long time, long seed) {
+            this.player = truncate(player);
+            this.mode = mode;
+            this.bossesDefeated = bossesDefeated;
+            this.damageDealt = damageDealt;
+            this.longestStreak = longestStreak;
+            this.time = time;
+            this.seed = seed;
+        }
+
+        @Override
+        public int compareTo(Score o) {
+            return compare(bossesDefeated, damageDealt, longestStreak, time,
+                    o.bossesDefeated, o.damageDealt, o.longestStreak, o.time);
+        }
+
+        @Override
+        public String toString() {
+            return player + ": " + bossesDefeated + " chefes, " + damageDealt + " de dano, sequência " + longestStreak;
+        }
+    }
+
+    private final Path dir;
+    private final FileChannel log;
+    private long logPosition;
+
+    private final MappedByteBuffer[] index = new MappedByteBuffer[MODES];
+    private final int[] indexCount = new int[MODES];
+    private final List<List<Score>> delta = new ArrayList<>();
+    private final List<Map<String, Score>> bestByPlayer = new ArrayList<>();
+    private int deltaSize;
+    private boolean compacting;
+
+    private final ConcurrentLinkedQueue<byte[]> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "leaderboard");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Leaderboard(Path dir, FileChannel log) throws IOException {
+        this.dir = dir;
+        this.log = log;
+        for (int m = 0; m < MODES; m++) {
+            delta.add(new ArrayList<>());
+            bestByPlayer.add(new HashMap<>());
+        }
+        long[] covered = new long[MODES];
+        for (int m = 0; m < MODES; m++) covered[m] = mapIndex(m);
+        replayLog(covered);
+    }
+
+    // abre (ou cria) o ranking; faz E/S, então chamar fora da thread do JavaFX
+    public static Leaderboard open(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        return open(dir, FileChannel.open(dir.resolve("scores.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    // com o canal do scores.log já aberto (nos testes, um canal que falha de propósito)
+    static Leaderboard open(Path dir, FileChannel log) throws IOException {
+        return new Leaderboard(dir, log);
+    }
+
+    // Registra uma partida: entra no ranking em memória na hora e é gravada no log em segundo plano
+    public void submit(Score s) {
+        if (s.mode < 0 || s.mode >= MODES) throw new IllegalArgumentException("Modo inválido: " + s.mode);
+        byte[] record = encode(s);
+        // delta e pendentes juntos: a compactação nunca vê uma partida no delta sem ver o registro dela
+        synchronized (this) {
+            insertDelta(s);
+            updateBest(s);
+            pending.add(record);
+        }
+        if (drainScheduled.compareAndSet(false, true)) worker.execute(this::drain);
+    }
+
+    // as K melhores partidas do modo
+    public synchronized List<Score> top(int mode, int k) {
+        List<Score> result = new ArrayList<>(k);
+        List<Score> d = delta.get(mode);
+        int i = 0;
+        int j = 0;
+        while (result.size() < k && (i < indexCount[mode] || j < d.size())) {
+            if (j >= d.size() || (i < indexCount[mode] && compareEntry(mode, i, d.get(j)) <= 0)) {
+                result.add(readEntry(mode, i++));
+            } else {
+                result.add(d.get(j++));
+            }
+        }
+        return result;
+    }
+
+    // posição (1 = primeiro) da melhor partida do jogador no modo, ou -1 se ele nunca jogou
+    public synchronized int rank(String player, int mode) {
+        Score best = bestByPlayer.get(mode).get(truncate(player));
+        return best == null ? -1 : rankOf(best);
+    }
+
+    // posição que um placar teria no modo (quantos são melhores que ele + 1)
+    public synchronized int rankOf(Score s) {
+        return betterInIndex(s) + betterInDelta(s) + 1;
+    }
+
+    public synchronized Score best(String player, int mode) {
+        return bestByPlayer.get(mode).get(truncate(player));
+    }
+
+    public synchronized int size(int mode) {
+        return indexCount[mode] + delta.get(mode).size();
+    }
+
+    // grava o que faltar e compacta o delta (ao fechar o programa)
+    @Override
+    public void close() {
+        worker.execute(() -> {
+            try {
+                compact();
+            } catch (IOException ex) {
+                System.err.println("Leaderboard: erro ao compactar: " + ex.getMessage());
+            }
+        });
+        worker.shutdown();
+        try {
+            worker.awaitTermination(30, TimeUnit.SECONDS);
+            log.close();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            System.err.println("Leaderboard: erro ao fechar: " + ex.getMessage());
+        }
+    }
+
+    // ----- consultas no índice (busca binária direto no arquivo mapeado) -----
+
+    private int betterInIndex(Score s) {
+        int lo = 0;
+        int hi = indexCount[s.mode];
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareEntry(s.mode, mid, s) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int betterInDelta(Score s) {
+        List<Score> d = delta.get(s.mode);
+        int lo = 0;
+        int hi = d.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (d.get(mid).compareTo(s) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private int compareEntry(int mode, int i, Score s) {
+        MappedByteBuffer buf = index[mode];
+        int p = INDEX_HEADER + i * ENTRY_SIZE;
+        return compare(buf.getInt(p), buf.getLong(p + 8), buf.getInt(p + 4), buf.getLong(p + 16),
+                s.bossesDefeated, s.damageDealt, s.longestStreak, s.time);
+    }
+
+    private Score readEntry(int mode, int i) {
+        MappedByteBuffer buf = index[mode];
+        int p = INDEX_HEADER + i * ENTRY_SIZE;
+        byte[] name = new byte[buf.get(p + 32)];
+        buf.get(p + 33, name);
+        return new Score(new String(name, StandardCharsets.UTF_8), mode, buf.getInt(p), buf.getLong(p + 8),
+                buf.getInt(p + 4), buf.getLong(p + 16), buf.getLong(p + 24));
+    }
+
+    private static void writeEntry(ByteBuffer buf, Score s) {
+        byte[] name = s.player.getBytes(StandardCharsets.UTF_8);
+        buf.putInt(s.bossesDefeated);
+        buf.putInt(s.longestStreak);
+        buf.putLong(s.damageDealt);
+        buf.putLong(s.time);
+        buf.putLong(s.seed);
+        buf.put((byte) name.length);
+        buf.put(name);
+        for (int i = name.length; i < NAME_BYTES; i++) buf.put((byte) 0);
+    }
+
+    // negativo se o primeiro placar é melhor
+    private static int compare(int bossesA, long damageA, int streakA, long timeA,
+                               int bossesB, long damageB, int streakB, long timeB) {
+        if (bossesA != bossesB) return Integer.compare(bossesB, bossesA);
+        if (damageA != damageB) return Long.compare(damageB, damageA);
+        if (streakA != streakB) return Integer.compare(streakB, streakA);
+        return Long.compare(timeA, timeB);
+    }
+
+    // nome cabe em 31 bytes UTF-8 (campo fixo do índice)
+    private static String truncate(String name) {
+        String s = name == null || name.isBlank() ? "?" : name.trim();
+        while (s.getBytes(StandardCharsets.UTF_8).length > NAME_BYTES) s = s.substring(0, s.length() - 1);
+        return s;
+    }
+
+    // ----- delta em memória -----
+
+    private void insertDelta(Score s) {
+        List<Score> d = delta.get(s.mode);
+        int pos = betterInDelta(s);
+        while (pos < d.size() && d.get(pos).compareTo(s) == 0) pos++;
+        d.add(pos, s);
+        deltaSize++;
+    }
+
+    private void updateBest(Score s) {
+        bestByPlayer.get(s.mode).merge(s.player, s, (old, cur) -> cur.compareTo(old) < 0 ? cur : old);
+    }
+
+    // ----- log (thread do Leaderboard) -----
+
+    private static byte[] encode(Score s) {
+        byte[] name = s.player.getBytes(StandardCharsets.UTF_8);
+        int payload = 1 + 4 + 8 + 4 + 8 + 8 + 1 + name.length;
+        ByteBuffer buf = ByteBuffer.allocate(4 + payload + 4);
+        buf.putInt(payload);
+        buf.put((byte) s.mode);
+        buf.putInt(s.bossesDefeated);
+        buf.putLong(s.damageDealt);
+        buf.putInt(s.longestStreak);
+        buf.putLong(s.time);
+        buf.putLong(s.seed);
+        buf.put((byte) name.length);
+        buf.put(name);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 4, payload);
+        buf.putInt((int) crc.getValue());
+        return buf.array();
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        try {
+            List<byte[]> records = new ArrayList<>();
+            for (byte[] r; (r = pending.poll()) != null; ) records.add(r);
+            appendLog(records);
+            maybeCompact();
+        } catch (IOException ex) {
+            System.err.println("Leaderboard: erro ao gravar placar: " + ex.getMessage());
+        }
+    }
+
+    // Grava os registros no fim do log com um único force(). Se a escrita ou o force() falhar, o log volta ao
+    // tamanho de antes e os registros voltam para os pendentes (são gravados na próxima vez): um registro
+    // cortado no meio do log faria a próxima abertura descartar todos os que viessem depois dele.
+    private void appendLog(List<byte[]> records) throws IOException {
+        if (records.isEmpty()) return;
+        int bytes = 0;
+        for (byte[] r : records) bytes += r.length;
+        ByteBuffer buf = ByteBuffer.allocate(bytes);
+        for (byte[] r : records) buf.put(r);
+        buf.flip();
+        long start = logPosition;
+        try {
+            long pos = start;
+            while (buf.hasRemaining()) pos += log.write(buf, pos);
+            log.force(false);
+            logPosition = pos;
+        } catch (IOException ex) {
+            try {
+                log.truncate(start);
+            } catch (IOException truncateEx) {
+                ex.addSuppressed(truncateEx); // a próxima gravação começa em start e cobre os bytes cortados
+            }
+            pending.addAll(records);
+            throw ex;
+        }
+    }
+
+    // Lê o log inteiro: registros já cobertos pelo índice do modo são pulados, os outros vão para o delta.
+    // O primeiro registro inválido (final cortado por travamento) e o que vier depois são descartados.
+    private void replayLog(long[] covered) throws IOException {
+        long size = log.size();
+        ByteBuffer data = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        while (data.hasRemaining() && log.read(data, data.position()) > 0) { }
+        data.flip();
+
+        long pos = 0;
+        while (data.remaining() >= 4) {
+            int start = data.position();
+            int payload = data.getInt();
+            if (payload < 35 || payload > 34 + NAME_BYTES || data.remaining() < payload + 4) break;
+            CRC32 crc = new CRC32();
+            crc.update(data.array(), start + 4, payload);
+            data.position(start + 4 + payload);
+            if ((int) crc.getValue() != data.getInt()) break;
+
+            data.position(start + 4);
+            int mode = data.get();
+            int bosses = data.getInt();
+            long damage = data.getLong();
+            int streak = data.getInt();
+            long time = data.getLong();
+            long seed = data.getLong();
+            byte[] name = new byte[data.get()];
+            data.get(name);
+            data.getInt(); // CRC já conferido
+            if (mode >= 0 && mode < MODES && pos >= covered[mode]) {
+                Score s = new Score(new String(name, StandardCharsets.UTF_8), mode, bosses, damage, streak, time, seed);
+                insertDelta(s);
+                updateBest(s);
+            }
+            pos = data.position();
+        }
+        if (pos < size) {
+            System.err.println("Leaderboard: descartando " + (size - pos) + " bytes incompletos no fim do log");
+            log.truncate(pos);
+        }
+        logPosition = pos;
+    }
+
+    // ----- índice (thread do Leaderboard) -----
+
+    // mapeia mode-N.idx (se existir), carrega o melhor de cada jogador e devolve a posição do log coberta
+    private long mapIndex(int mode) throws IOException {
+        Path file = indexFile(mode);
+        if (!Files.exists(file)) return 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (buf.capacity() < INDEX_HEADER || buf.getInt(0) != INDEX_MAGIC || buf.getShort(4) != INDEX_VERSION) {
+                System.err.println("Leaderboard: índice inválido ignorado: " + file);
+                return 0;
+            }
+            int count = buf.getInt(8);
+            if (INDEX_HEADER + (long) count * ENTRY_SIZE > buf.capacity()) {
+                System.err.println("Leaderboard: índice incompleto ignorado: " + file);
+                return 0;
+            }
+            synchronized (this) {
+                index[mode] = buf;
+                indexCount[mode] = count;
+                Map<String, Score> best = bestByPlayer.get(mode);
+                best.clear();
+                // do melhor para o pior: a primeira partida de cada jogador é a melhor dele
+                for (int i = 0; i < count; i++) {
+                    Score s = readEntry(mode, i);
+                    best.putIfAbsent(s.player, s);
+                }
+            }
+            return buf.getLong(16);
+        }
+    }
+
+    private void maybeCompact() throws IOException {
+        synchronized (this) {
+            if (deltaSize < COMPACT_THRESHOLD || compacting) return;
+        }
+        compact();
+    }
+
+    // Junta índice + delta de cada modo num índice novo; partidas que chegarem durante a compactação ficam no delta.
+    // O índice diz até que posição do log ele cobre, então todas as partidas copiadas do delta precisam estar
+    // gravadas antes dessa posição: as que ainda estavam pendentes são gravadas aqui, antes de escrever o índice.
+    // Senão entrariam no índice e de novo no delta ao reabrir (contadas duas vezes no top/rank).
+    private void compact() throws IOException {
+        List<List<Score>> merging = new ArrayList<>();
+        List<byte[]> unwritten = new ArrayList<>();
+        synchronized (this) {
+            if (deltaSize == 0) return;
+            compacting = true;
+            for (byte[] r; (r = pending.poll()) != null; ) unwritten.add(r);
+            for (int m = 0; m < MODES; m++) merging.add(new ArrayList<>(delta.get(m)));
+        }
+        try {
+            appendLog(unwritten);
+            long covered = logPosition;
+            for (int m = 0; m < MODES; m++) {
+                if (merging.get(m).isEmpty() && index[m] != null) continue;
+                writeIndex(m, merging.get(m), covered);
+            }
+        } finally {
+            synchronized (this) {
+                deltaSize = 0;
+                for (List<Score> d : delta) deltaSize += d.size();
+                compacting = false;
+            }
+        }
+    }
+
+    private void writeIndex(int mode, List<Score> add, long covered) throws IOException {
+        Path file = indexFile(mode);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        int oldCount;
+        synchronized (this) {
+            oldCount = indexCount[mode];
+        }
+        int count = oldCount + add.size();
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER);
+            header.putInt(INDEX_MAGIC).putShort(INDEX_VERSION).putShort((short) ENTRY_SIZE)
+                    .putInt(count).putInt(0).putLong(covered);
+            header.clear();
+            ch.write(header);
+
+            // intercala o índice antigo (já ordenado) com as partidas novas (já ordenadas)
+            ByteBuffer out = ByteBuffer.allocate(ENTRY_SIZE * 1024);
+            int i = 0;
+            int j = 0;
+            while (i < oldCount || j < add.size()) {
+                if (!out.hasRemaining()) {
+                    out.flip();
+                    while (out.hasRemaining()) ch.write(out);
+                    out.clear();
+                }
+                if (j >= add.size() || (i < oldCount && compareEntry(mode, i, add.get(j)) <= 0)) {
+                    ByteBuffer old = index[mode].duplicate();
+                    old.limit(INDEX_HEADER + (i + 1) * ENTRY_SIZE).position(INDEX_HEADER + i * ENTRY_SIZE);
+                    out.put(old);
+                    i++;
+                } else {
+                    writeEntry(out, add.get(j++));
+                }
+            }
+            out.flip();
+            while (out.hasRemaining()) ch.write(out);
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            // troca o índice e tira do delta as partidas que entraram nele no mesmo passo: top/rank nunca
+            // veem uma partida nos dois (e o que não chegou a ser gravado continua no delta)
+            Set<Score> merged = Collections.newSetFromMap(new IdentityHashMap<>());
+            merged.addAll(add);
+            synchronized (this) {
+                index[mode] = buf;
+                indexCount[mode] = count;
+                delta.get(mode).removeIf(merged::contains);
+            }
+        }
+    }
+
+    private Path indexFile(int mode) {
+        return dir.resolve("mode-" + mode + ".idx");
+    }
+
+    // Consulta pelo terminal: Leaderboard DIRETÓRIO top MODO [K] | Leaderboard DIRETÓRIO rank MODO JOGADOR
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: Leaderboard diretório top modo [k] | Leaderboard diretório rank modo jogador"
+                    + " (modo: 0 Matemática, 1 Arcade, 2 Infinito)");
+            System.exit(1);
+        }
+        Leaderboard board = open(Paths.get(args[0]));
+        int mode = Integer.parseInt(args[2]);
+        if ("rank".equals(args[1]) && args.length > 3) {
+            System.out.println(args[3] + ": posição " + board.rank(args[3], mode) + " de " + board.size(mode));
+        } else {
+            int k = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+            int pos = 1;
+            for (Score s : board.top(mode, k)) System.out.println(pos++ + ". " + s);
+        }
+        board.close();
+    }
+}
@@ -1,34 +1,154 @@
 package com.safemath.game;
 
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.event.ActionEvent;
 import javafx.geometry.Pos;
-import javafx.scene.Scene;
 import javafx.scene.control.Button;
-import javafx.scene.image.Image;
+import javafx.scene.control.Label;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+
 public class Main extends Application {
 
-    // Família da fonte carregada — inicializada em start(...)
-    private String globalFontFamily = null;
+    // Início do processo (informado pelo sistema) — base das medições de inicialização, que assim incluem a
+    // partida da JVM e o carregamento de classes. Se o sistema não informar, vale o carregamento desta classe.
+    private static final long LAUNCH_MILLIS = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli).orElseGet(System::currentTimeMillis);
+
+    // Família da fonte carregada — inicializada pela pré-carga em start(...)
+    private volatile String globalFontFamily = null;
+
+    // Scene única da janela; menu e jogo só trocam a root
+    private SceneManager scenes;
+
+    // Diário de eventos das partidas; aberto durante a pré-carga (null = desligado ou falhou)
+    private volatile EventJournal journal;
+
+    // Save da partida em andamento (null = desligado) e o que a execução anterior deixou salvo
+    private volatile SessionStore saves;
+    private volatile SessionSnapshot savedSession;
+
+    // Ranking por jogador e modo (null = desligado ou falhou)
+    private volatile Leaderboard leaderboard;
+
+    // Tela da partida em andamento (para fechar a gravação de entradas ao sair)
+    private GamePane activePane;
 
     @Override
     public void start(Stage primaryStage) {
-        // Tente carregar a fonte global antes de construir a UI para que todos os controles usem ela
-        loadGlobalFont("/fonte/ARCADE_N.TTF"); // coloque sua fonte em src/main/resources/fonte/ARCADE_N.TTF (mude o nome se necessário)
+        // Tela de carregamento leve: aparece imediatamente, sem depender de fonte nem de imagens
+        Label loading = new Label("SafeMath\n\nCarregando...");
+        loading.setTextFill(Color.WHITE);
+        loading.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-alignment: center;");
+        StackPane splash = new StackPane(loading);
+        splash.setStyle("-fx-background-color: #0b3f2b;");
 
-        VBox menu = criarMenu(primaryStage);
+        scenes = new SceneManager(primaryStage, splash, 800, 600);
+        SceneManager.onNextFrame(scenes.getScene(), () -> logStartup("primeiro quadro"));
 
-        Scene scene = new Scene(menu, 800, 600);
-        applyGlobalFontAndStyles(scene);
-
-        primaryStage.setTitle("SafeMath 2D - Menu");
-        primaryStage.setScene(scene);
+        primaryStage.setTitle("SafeMath 2D");
         primaryStage.show();
+
+        // Fonte e imagens do menu e dos três modos são decodificadas em paralelo fora da thread do JavaFX
+        AssetPreloader.runAll(List.of(
+                () -> loadGlobalFont("/fonte/ARCADE_N.TTF"), // coloque sua fonte em src/main/resources/fonte/ARCADE_N.TTF (mude o nome se necessário)
+                AssetPreloader::preloadMenu,
+                AssetPreloader::preloadArena,
+                AssetPreloader::preloadSprites,
+                this::openJournal,
+                this::loadSavedSession,
+                this::openLeaderboard
+        )).thenRun(() -> Platform.runLater(() -> {
+            scenes.setFontFamily(globalFontFamily);
+            if (savedSession != null) {
+                // partida interrompida (travamento, janela fechada): volta direto para ela
+                resumeGame(primaryStage, savedSession);
+                savedSession = null;
+            } else {
+                showMenu(primaryStage);
+            }
+            SceneManager.onNextFrame(scenes.getScene(), () -> logStartup("menu interativo"));
+        }));
+    }
+
+    // -Dsafemath.journal=diretório muda o local (padrão ~/.safemath/journal); "off" desliga
+    private void openJournal() {
+        String dir = System.getProperty("safemath.journal",
+                Paths.get(System.getProperty("user.home"), ".safemath", "journal").toString());
+        if ("off".equalsIgnoreCase(dir)) return;
+        try {
+            journal = EventJournal.open(Paths.get(dir));
+        } catch (Exception ex) {
+            System.err.println("Diário de eventos desligado: " + ex.getMessage());
+        }
+    }
+
+    // -Dsafemath.save=arquivo muda o local (padrão ~/.safemath/session.bin); "off" desliga
+    private void loadSavedSession() {
+        String path = System.getProperty("safemath.save",
+                Paths.get(System.getProperty("user.home"), ".safemath", "session.bin").toString());
+        if ("off".equalsIgnoreCase(path)) return;
+        saves = new SessionStore(Paths.get(path));
+        savedSession = saves.load();
+    }
+
+    // fim de turno no GamePane: grava o estado (ou apaga o save se a partida acabou)
+    public void saveProgress(Game game) {
+        if (saves != null) saves.save(game);
+    }
+
+    // partida abandonada pelo menu: não volta nela na próxima execução
+    public void discardProgress() {
+        if (saves != null) saves.delete();
+    }
+
+    // -Dsafemath.leaderboard=diretório muda o local (padrão ~/.safemath/leaderboard); "off" desliga
+    private void openLeaderboard() {
+        String dir = System.getProperty("safemath.leaderboard",
+                Paths.get(System.getProperty("user.home"), ".safemath", "leaderboard").toString());
+        if ("off".equalsIgnoreCase(dir)) return;
+        try {
+            leaderboard = Leaderboard.open(Paths.get(dir));
+        } catch (Exception ex) {
+            System.err.println("Ranking desligado: " + ex.getMessage());
+        }
+    }
+
+    // Partida encerrada (derrota, vitória ou saída pelo menu) entra no ranking.
+    // O jogador é -Dsafemath.player=nome (padrão: usuário do sistema, um por quiosque).
+    public void recordScore(Game game) {
+        if (leaderboard == null || (game.bossesDefeated == 0 && game.damageDealt == 0)) return;
+        String player = System.getProperty("safemath.player", System.getProperty("user.name"));
+        Leaderboard.Score score = new Leaderboard.Score(player, game.modeIndex(), game.bossesDefeated,
+                game.damageDealt, game.longestStreak, System.currentTimeMillis(), game.getSeed());
+        leaderboard.submit(score);
+        System.out.println("Ranking " + game.getMode() + ": " + score + " (posição " + leaderboard.rankOf(score) + ")");
+    }
+
+    @Override
+    public void stop() {
+        if (activePane != null) activePane.stopRecording();
+        if (journal != null) journal.close();
+        if (saves != null) saves.close();
+        if (leaderboard != null) leaderboard.close();
+    }
+
+    private static void logStartup(String etapa) {
+        long ms = System.currentTimeMillis() - LAUNCH_MILLIS;
+        System.out.println("Inicialização: " + etapa + " em " + ms + " ms");
+    }
+
+    // volta (ou vai pela primeira vez) ao menu, reaproveitando a root já construída
+    public void showMenu(Stage stage) {
+        scenes.showMenu(() -> criarMenu(stage), "SafeMath 2D - Menu");
     }
 
     private void loadGlobalFont(String resourcePath) {
@@ -52,32 +172,13 @@ public class Main extends Application {
     }
 
 
-    private void applyGlobalFontAndStyles(Scene scene) {
-        if (scene == null) return;
-        if (globalFontFamily != null) {
-            // Aplica apenas a família como estilo direto na root para garantir herança (sem forçar o tamanho)
-            scene.getRoot().setStyle("-fx-font-family: '" + globalFontFamily + "';");
-        }
-        // Tenta carregar stylesheet opcional
-        try {
-            if (getClass().getResource("/styles/global.css") != null) {
-                scene.getStylesheets().add(getClass().getResource("/styles/global.css").toExternalForm());
-            } else {
-                // opcional: informe que o CSS não foi encontrado
-                System.err.println("Aviso: /styles/global.css não encontrado (estilos globais não aplicados).");
-            }
-        } catch (Exception e) {
-            System.err.println("Erro ao carregar global.css: " + e.getMessage());
-        }
-    }
-
     public VBox criarMenu(Stage stage) {
         VBox menu = new VBox(20);
         menu.setAlignment(Pos.CENTER);
 
         // Fundo
         BackgroundImage backgroundImage = new BackgroundImage(
-                new Image(getClass().getResource("/images/SafeMath.png").toExternalForm(), 800, 600, false, true),
+                ImageCache.get("/images/SafeMath.png", SpriteSize.BACKGROUND),
                 BackgroundRepeat.NO_REPEAT, BackgroundRepeat.NO_REPEAT,
                 BackgroundPosition.CENTER, BackgroundSize.DEFAULT
         );
@@ -100,9 +201,9 @@ public class Main extends Application {
         javafx.scene.control.Button btnArcade = (javafx.scene.control.Button) btnArcadeBox.getChildren().get(1);
         javafx.scene.control.Button btnInfinito = (javafx.scene.control.Button) btnInfinitoBox.getChildren().get(1);
 
-        btnMatematica.setOnAction(e -> startGame(stage, "Matematica"));
-        btnArcade.setOnAction(e -> startGame(stage, "Arcade"));
-        btnInfinito.setOnAction(e -> startGame(stage, "Infinito"));
+        btnMatematica.setOnAction(e -> startGame(stage, Mode.MATEMATICA));
+        btnArcade.setOnAction(e -> startGame(stage, Mode.ARCADE));
+        btnInfinito.setOnAction(e -> startGame(stage, Mode.INFINITO));
 
         return menu;
     }
@@ -119,7 +220,7 @@ public class Main extends Application {
     }
 
     private ImageView criarSeta() {
-        ImageView seta = new ImageView(new Image(getClass().getResource("/images/seta.png").toExternalForm()));
+        ImageView seta = new ImageView(ImageCache.get("/images/seta.png", SpriteSize.ARROW));
         seta.setFitWidth(24);
         seta.setFitHeight(24);
         seta.setVisible(false);
@@ -134,23 +235,51 @@ public class Main extends Application {
 
         botao.setOnMouseEntered(e -> seta.setVisible(true));
         botao.setOnMouseExited(e -> seta.setVisible(false));
+        // o menu é reaproveitado: esconde a seta ao sair dele pelo botão
+        botao.addEventHandler(ActionEvent.ACTION, e -> seta.setVisible(false));
 
         return hbox;
     }
 
 
-    private void startGame(Stage stage, String mode) {
-        Game game = new Game();
-        game.mode = mode;
-        GamePane pane = new GamePane(game, this, stage); // passa referência do Main
-        game.setPane(pane);
+    private void startGame(Stage stage, Mode mode) {
+        // -Dsafemath.seed=N reproduz uma sessão específica
+        Long seed = Long.getLong("safemath.seed");
+        Game game = seed != null ? new Game(seed) : new Game();
+        game.setMode(mode);
+        System.out.println("Sessão " + mode + " iniciada (semente " + game.getSeed() + ")");
+        play(stage, game, "menu → jogo");
+        startRecording(game);
+    }
 
-        Scene scene = new Scene(pane, 800, 600);
-        applyGlobalFontAndStyles(scene);
+    // -Dsafemath.record=diretório muda o local das gravações (padrão ~/.safemath/recordings); "off" desliga.
+    // A pasta guarda só as gravações mais recentes (ver InputRecorder).
+    // Só partidas novas: uma partida restaurada do save não começa na semente e não daria para reproduzir.
+    private void startRecording(Game game) {
+        String dir = System.getProperty("safemath.record",
+                Paths.get(System.getProperty("user.home"), ".safemath", "recordings").toString());
+        if ("off".equalsIgnoreCase(dir)) return;
+        try {
+            activePane.setRecorder(InputRecorder.start(Paths.get(dir), game));
+        } catch (Exception ex) {
+            System.err.println("Gravação de entradas desligada: " + ex.getMessage());
+        }
+    }
+
+    private void resumeGame(Stage stage, SessionSnapshot snapshot) {
+        Game game = snapshot.restore();
+        System.out.println("Sessão " + game.getMode() + " restaurada (semente " + game.getSeed() + ")");
+        play(stage, game, "save → jogo");
+    }
+
+    private void play(Stage stage, Game game, String transition) {
+        if (journal != null) game.setJournal(journal);
+        if (activePane != null) activePane.stopRecording();
+        GamePane pane = new GamePane(game, this, stage); // passa referência do Main
+        game.setListener(pane);
+        activePane = pane;
 
-        stage.setTitle("SafeMath 2D - " + mode);
-        stage.setScene(scene);
-        stage.show();
+        scenes.show(pane, "SafeMath 2D - " + game.getMode(), transition);
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,63 @@
+package com.safemath.game;
+
+// Matemática: um chefe por animal (vida = 3x a força dele); derrotar o chefe desbloqueia o próximo
+// animal, e vencer o chefe do último animal vence o modo.
+final class MatematicaMode implements GameMode {
+
+    private static final String[] BOSSES = {
+            "/images/matematica/boss1.png",
+            "/images/matematica/boss2.png",
+            "/images/matematica/boss3.png",
+            "/images/matematica/boss4.png",
+            "/images/matematica/boss5.png"
+    };
+
+    @Override
+    public int bossHealth(Game game) {
+        return game.currentAnimal.force * 3;
+    }
+
+    @Override
+    public String difficulty() {
+        return "facil";
+    }
+
+    @Override
+    public int counterDamageMax(Game game) {
+        return 50;
+    }
+
+    @Override
+    public String[] bossSprites() {
+        return BOSSES;
+    }
+
+    // um chefe por animal desbloqueado
+    @Override
+    public int bossSpriteIndex(Game game) {
+        return Math.max(1, Math.min(game.currentAnimal.index + 1, BOSSES.length));
+    }
+
+    // só os animais já desbloqueados
+    @Override
+    public int availableAnimals(Game game) {
+        return game.currentAnimal.index + 1;
+    }
+
+    @Override
+    public void onBossDefeated(Game game) {
+        int index = game.currentAnimal.index;
+        game.record(EventJournal.BOSS_DEFEATED, game.modeIndex(), index, 0, 0);
+        if (index < game.animals.size() - 1) {
+            // Desbloqueia próximo animal
+            game.currentAnimal = game.animals.get(index + 1);
+            game.record(EventJournal.ANIMAL_UNLOCKED, 0, index + 1, 0, 0);
+            if (game.listener != null) game.listener.onAnimalUnlocked(game.currentAnimal);
+            game.spawnBoss();
+        } else {
+            // mostra a mensagem e volta automaticamente ao menu
+            if (game.listener != null) game.listener.onModeVictory();
+            game.endGame();
+        }
+    }
+}
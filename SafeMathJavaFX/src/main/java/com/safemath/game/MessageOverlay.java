@@ -0,0 +1,236 @@
+package com.safemath.game;
+
+import javafx.animation.Animation;
+import javafx.animation.FadeTransition;
+import javafx.animation.PauseTransition;
+import javafx.geometry.Pos;
+import javafx.scene.control.Label;
+import javafx.scene.layout.StackPane;
+import javafx.util.Duration;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+// Mensagens centrais do jogo: usa um pool fixo de labels (e transições) reaproveitados,
+// agrupa mensagens repetidas, limita quantas aparecem ao mesmo tempo e deixa o resto numa fila
+// por prioridade. Assim a cena não cresce por mais rápido que o aluno aperte Enter.
+public class MessageOverlay {
+
+    public enum Priority { TOAST, MESSAGE, CRITICAL }
+
+    // overlays visíveis ao mesmo tempo (um em cima do outro, no centro)
+    private static final int MAX_VISIBLE = 2;
+    // mensagens aguardando slot livre; acima disso a menos importante é descartada
+    private static final int MAX_PENDING = 6;
+    private static final double SLOT_OFFSET_Y = 78;
+
+    private static final String MESSAGE_STYLE =
+            "-fx-background-color: rgba(0,0,0,0.85); -fx-text-fill: white; -fx-padding: 18 28; " +
+                    "-fx-background-radius: 10; -fx-font-size: 12px; -fx-font-weight: bold; -fx-alignment: center;";
+    private static final String TOAST_STYLE =
+            "-fx-background-color: rgba(0,0,0,0.75); -fx-text-fill: white; -fx-padding: 10 16; " +
+                    "-fx-background-radius: 8; -fx-font-size: 12px; -fx-font-weight: bold;";
+
+    private final StackPane layer;
+    private final Slot[] slots = new Slot[MAX_VISIBLE];
+    private final PriorityQueue<Pending> pending = new PriorityQueue<>(
+            Comparator.comparingInt((Pending p) -> -p.priority.ordinal()).thenComparingLong(p -> p.seq));
+    private long seq = 0;
+
+    public MessageOverlay(StackPane layer) {
+        this.layer = layer;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot(i);
+            layer.getChildren().add(slots[i].label);
+            StackPane.setAlignment(slots[i].label, Pos.CENTER);
+        }
+    }
+
+    public void show(String text, double seconds, Priority priority) {
+        if (text == null) return;
+
+        // mensagem igual já na tela ou na fila: só estende o tempo
+        for (Slot s : slots) {
+            if (s.active && !s.leaving && text.equals(s.text)) {
+                s.extend(seconds);
+                return;
+            }
+        }
+        for (Pending p : pending) {
+            if (text.equals(p.text)) {
+                p.seconds = Math.max(p.seconds, seconds);
+                return;
+            }
+        }
+
+        // mensagens críticas (derrota, vitória) descartam o que é menos importante
+        if (priority == Priority.CRITICAL) {
+            pending.removeIf(p -> p.priority.ordinal() < Priority.CRITICAL.ordinal());
+            for (Slot s : slots) {
+                if (s.active && s.priority != Priority.CRITICAL) s.leave();
+            }
+        }
+
+        Slot free = freeSlot();
+        if (free != null) {
+            free.play(text, seconds, priority);
+            return;
+        }
+
+        // sem slot livre: tira da tela a mensagem de menor prioridade, se houver
+        Slot weakest = null;
+        for (Slot s : slots) {
+            if (!s.leaving && s.priority.ordinal() < priority.ordinal()
+                    && (weakest == null || s.priority.ordinal() < weakest.priority.ordinal())) {
+                weakest = s;
+            }
+        }
+        if (weakest != null) weakest.leave();
+
+        enqueue(new Pending(text, seconds, priority, seq++));
+    }
+
+    public void clear() {
+        pending.clear();
+        for (Slot s : slots) s.reset();
+        updateLayer();
+    }
+
+    private void enqueue(Pending p) {
+        pending.add(p);
+        if (pending.size() > MAX_PENDING) {
+            // descarta a menos importante (e mais recente entre as de mesma prioridade)
+            Pending worst = null;
+            for (Pending q : pending) {
+                if (worst == null || q.priority.ordinal() < worst.priority.ordinal()
+                        || (q.priority == worst.priority && q.seq > worst.seq)) {
+                    worst = q;
+                }
+            }
+            pending.remove(worst);
+        }
+    }
+
+    private Slot freeSlot() {
+        for (Slot s : slots) if (!s.active) return s;
+        return null;
+    }
+
+    private void released(Slot slot) {
+        slot.reset();
+        Pending next = pending.poll();
+        if (next != null) slot.play(next.text, next.seconds, next.priority);
+        updateLayer();
+    }
+
+    // a camada só bloqueia cliques enquanto houver mensagem (toast nunca bloqueia)
+    private void updateLayer() {
+        boolean any = false;
+        boolean blocking = false;
+        for (Slot s : slots) {
+            if (!s.active) continue;
+            any = true;
+            if (s.priority != Priority.TOAST) blocking = true;
+        }
+        layer.setManaged(any);
+        layer.setMouseTransparent(!blocking);
+        if (any) layer.toFront();
+    }
+
+    private static final class Pending {
+        final String text;
+        double seconds;
+        final Priority priority;
+        final long seq;
+
+        Pending(String text, double seconds, Priority priority, long seq) {
+            this.text = text;
+            this.seconds = seconds;
+            this.priority = priority;
+            this.seq = seq;
+        }
+    }
+
+    // Um label do pool com suas três transições (fade in, pausa, fade out), todas reaproveitadas
+    private final class Slot {
+        final Label label = new Label();
+        final FadeTransition in = new FadeTransition(Duration.millis(220), label);
+        final PauseTransition hold = new PauseTransition();
+        final FadeTransition out = new FadeTransition(Duration.millis(240), label);
+
+        boolean active = false;
+        boolean leaving = false;
+        String text;
+        Priority priority = Priority.TOAST;
+
+        Slot(int index) {
+            label.setWrapText(true);
+            label.setOpacity(0);
+            label.setVisible(false);
+            label.setTranslateY(index * SLOT_OFFSET_Y);
+
+            in.setToValue(1);
+            out.setToValue(0);
+            in.setOnFinished(ev -> hold.playFromStart());
+            hold.setOnFinished(ev -> {
+                leaving = true;
+                out.setFromValue(label.getOpacity());
+                out.playFromStart();
+            });
+            out.setOnFinished(ev -> released(this));
+        }
+
+        void play(String text, double seconds, Priority priority) {
+            this.text = text;
+            this.priority = priority;
+            this.active = true;
+            this.leaving = false;
+
+            boolean toast = priority == Priority.TOAST;
+            label.setText(text);
+            label.setStyle(toast ? TOAST_STYLE : MESSAGE_STYLE);
+            label.setOpacity(0);
+            label.setVisible(true);
+            label.toFront();
+
+            in.setDuration(Duration.millis(toast ? 160 : 220));
+            in.setFromValue(0);
+            out.setDuration(Duration.millis(toast ? 200 : 240));
+            hold.setDuration(Duration.seconds(seconds));
+
+            updateLayer();
+            in.playFromStart();
+        }
+
+        void extend(double seconds) {
+            if (hold.getStatus() == Animation.Status.RUNNING) {
+                hold.stop();
+                hold.setDuration(Duration.seconds(Math.max(seconds, hold.getDuration().toSeconds())));
+                hold.playFromStart();
+            } else {
+                hold.setDuration(Duration.seconds(Math.max(seconds, hold.getDuration().toSeconds())));
+            }
+        }
+
+        // sai mais cedo (fade out a partir da opacidade atual)
+        void leave() {
+            if (!active || leaving) return;
+            leaving = true;
+            in.stop();
+            hold.stop();
+            out.setFromValue(label.getOpacity());
+            out.playFromStart();
+        }
+
+        void reset() {
+            in.stop();
+            hold.stop();
+            out.stop();
+            active = false;
+            leaving = false;
+            text = null;
+            label.setVisible(false);
+            label.setOpacity(0);
+        }
+    }
+}
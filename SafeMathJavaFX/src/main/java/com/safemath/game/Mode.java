@@ -1,7 +1,36 @@
 package com.safemath.game;
 
+// Modos de jogo. A ordem é o número do modo gravado no diário, no save e no ranking (não reordenar).
 public enum Mode {
-    MATEMATICA,
-    ARCADE,
-    INFINITO
+    MATEMATICA("Matematica", new MatematicaMode()),
+    ARCADE("Arcade", new ArcadeMode()),
+    INFINITO("Infinito", new InfinitoMode());
+
+    // nome exibido e usado nas gravações/API
+    public final String label;
+    public final GameMode rules;
+
+    Mode(String label, GameMode rules) {
+        this.label = label;
+        this.rules = rules;
+    }
+
+    // aceita o nome do enum ou o exibido, sem diferenciar maiúsculas (ex.: "ARCADE" ou "arcade")
+    public static Mode parse(String s) {
+        for (Mode m : values()) {
+            if (m.name().equalsIgnoreCase(s) || m.label.equalsIgnoreCase(s)) return m;
+        }
+        throw new IllegalArgumentException("Modo desconhecido: " + s);
+    }
+
+    // número gravado (ordinal); desconhecido vira Matemática
+    public static Mode fromIndex(int index) {
+        Mode[] all = values();
+        return index >= 0 && index < all.length ? all[index] : MATEMATICA;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
 }
@@ -19,6 +19,11 @@ public class Player {
 
     public boolean isAlive() { return health > 0; }
 
+    // restaurar uma partida salva
+    public void setHealth(int health) {
+        this.health = Math.max(0, Math.min(health, maxHealth));
+    }
+
     public void healFull() {
         this.health = maxHealth;
     }
@@ -1,11 +1,20 @@
 package com.safemath.game;
 
 public class Question {
-    public final String text;
-    public final double answer;
+    // operação + operandos empacotados (ver QuestionCodec)
+    public final long code;
+    public final int answer;
 
-    public Question(String text, double answer) {
-        this.text = text;
-        this.answer = answer;
+    // montado só quando a questão é exibida
+    private String text;
+
+    public Question(long code) {
+        this.code = code;
+        this.answer = QuestionCodec.answer(code);
+    }
+
+    public String text() {
+        if (text == null) text = QuestionCodec.text(code);
+        return text;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
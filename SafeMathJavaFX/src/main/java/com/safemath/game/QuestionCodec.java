@@ -0,0 +1,90 @@
+package com.safemath.game;
+
+// Representação compacta de uma questão num único long, sem strings:
+//   bits 0..7   operação (ADD, SUB, MUL, DIV) ou, a partir de 4, modelo de expressão (ver ExpressionTemplate)
+//   bits 8..19  primeiro operando
+//   bits 20..31 segundo operando
+//   bits 32..55 terceiro e quarto operandos (só expressões)
+// A resposta é sempre um inteiro exato e o texto só é montado quando alguém vai exibi-lo.
+public final class QuestionCodec {
+
+    public static final int ADD = 0;
+    public static final int SUB = 1;
+    public static final int MUL = 2;
+    public static final int DIV = 3;
+
+    private static final String[] SYMBOLS = {" + ", " - ", " × ", " ÷ "};
+
+    private static final int OPERAND_BITS = 12;
+    private static final int OPERAND_MASK = (1 << OPERAND_BITS) - 1;
+    public static final int MAX_OPERANDS = 4;
+
+    private QuestionCodec() {}
+
+    public static long pack(int op, int a, int b) {
+        return (op & 0xFF)
+                | ((long) (a & OPERAND_MASK) << 8)
+                | ((long) (b & OPERAND_MASK) << (8 + OPERAND_BITS));
+    }
+
+    public static int op(long code) {
+        return (int) (code & 0xFF);
+    }
+
+    public static int a(long code) {
+        return (int) ((code >>> 8) & OPERAND_MASK);
+    }
+
+    public static int b(long code) {
+        return (int) ((code >>> (8 + OPERAND_BITS)) & OPERAND_MASK);
+    }
+
+    // operando i (0..3); a(code) == operand(code, 0) e b(code) == operand(code, 1)
+    public static int operand(long code, int i) {
+        return (int) ((code >>> (8 + i * OPERAND_BITS)) & OPERAND_MASK);
+    }
+
+    // troca o operando i, mantendo o resto do código
+    public static long withOperand(long code, int i, int value) {
+        int shift = 8 + i * OPERAND_BITS;
+        return (code & ~((long) OPERAND_MASK << shift)) | ((long) (value & OPERAND_MASK) << shift);
+    }
+
+    // quantidade de operações da questão: 1 nas contas simples, 2 ou 3 nas expressões
+    public static int operations(long code) {
+        ExpressionTemplate t = ExpressionTemplate.of(op(code));
+        return t == null ? 1 : t.operations();
+    }
+
+    // operação entre o operando i e o i + 1
+    public static int operator(long code, int i) {
+        ExpressionTemplate t = ExpressionTemplate.of(op(code));
+        return t == null ? op(code) : t.op(i);
+    }
+
+    public static int answer(long code) {
+        int a = a(code);
+        int b = b(code);
+        return switch (op(code)) {
+            case ADD -> a + b;
+            case SUB -> a - b;
+            case MUL -> a * b;
+            case DIV -> b == 0 ? 0 : a / b;
+            default -> {
+                ExpressionTemplate t = ExpressionTemplate.of(op(code));
+                yield t == null ? 0 : Math.max(0, t.evaluate(code));
+            }
+        };
+    }
+
+    // texto exibido ao aluno, ex.: "7 × 8 ?" ou "12 ÷ 3 + 4 × 5 ?"
+    public static String text(long code) {
+        int operations = operations(code);
+        if (operations == 1) return a(code) + SYMBOLS[op(code)] + b(code) + " ?";
+        StringBuilder sb = new StringBuilder(32).append(operand(code, 0));
+        for (int i = 0; i < operations; i++) {
+            sb.append(SYMBOLS[operator(code, i)]).append(operand(code, i + 1));
+        }
+        return sb.append(" ?").toString();
+    }
+}
@@ -1,45 +1,138 @@
 package com.safemath.game;
 
-import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
+import static com.safemath.game.QuestionCodec.ADD;
+import static com.safemath.game.QuestionCodec.DIV;
+import static com.safemath.game.QuestionCodec.MUL;
+import static com.safemath.game.QuestionCodec.SUB;
+
+// Não é sincronizado: cada sessão (Game) tem o seu, com o gerador vindo do SessionRandom da sessão.
 public class QuestionGenerator {
-    private Random rand = new Random();
+    private final RandomGenerator rand;
+    // desempenho por operação; decide quais operações aparecem mais dentro de cada nível
+    private final SkillStats skills;
+    // questões recentes da partida, para não repetir a mesma conta logo em seguida (null = desligado)
+    private RecentQuestionWindow recent = new RecentQuestionWindow(DEFAULT_RECENT_WINDOW);
 
     private int consecutiveCorrects = 0;
+    // expressão sendo montada por buildExpression (evita devolver dois valores por chamada)
+    private long expression;
+    // nível da última questão gerada (simulações e estatísticas)
+    private QuestionTier lastTier = QuestionTier.EASY;
 
+    public static final int DEFAULT_RECENT_WINDOW = 32;
+    // novos sorteios quando sai uma questão da janela; depois disso a repetição é aceita
+    // (níveis com poucas combinações não travam se a janela for grande)
+    private static final int REPEAT_ATTEMPTS = 8;
 
-    public Question generate(String difficultyBase) {
-        String base = (difficultyBase == null) ? "facil" : difficultyBase.toLowerCase();
+    private static final int BASE_FACIL = 0;
+    private static final int BASE_MEDIO = 1;
+    private static final int BASE_DIFICIL = 2;
+    private static final int BASE_INFINITO = 3;
+
+    // Espaço de operandos válidos de cada nível, enumerado uma vez (compartilhado e imutável).
+    // Sortear um índice é O(1) e uniforme, sem laços de rejeição.
+    private static final int MAX_PRODUCT = 100;
+
+    private static final long[] EASY_SUB = subtractionTable(20);
+
+    private static final long[] MEDIUM_SUB = subtractionTable(50);
+    private static final long[] MEDIUM_MUL = multiplicationTable(12, 10);  // fatores pequenos para facilitar
 
-        Question q = null;
-        int attempts = 0;
-        do {
-            q = generateForBase(base);
-            attempts++;
-            if (attempts > 200) break;
-        } while (isMultiplicationQuestion(q) && (Math.abs(q.answer) > 100)); // garantimos <= 100 para multiplicações
+    private static final long[] HARD_SUB = subtractionTable(120);
+    private static final long[] HARD_DIV = divisionTable(12, 12);
+    private static final long[] HARD_MUL = multiplicationTable(12, 12);
+
+    private static final long[] INSANE_DIV = divisionTable(15, 20);       // divisor um pouco maior possível
+    private static final long[] INSANE_MUL = multiplicationTable(15, 12);
+
+    // Peso base de cada operação no nível (índices ADD, SUB, MUL, DIV do QuestionCodec)
+    private static final float[] EASY_WEIGHTS = {1f, 1f, 0f, 0f};
+    private static final float[] MEDIUM_WEIGHTS = {1f, 1f, 1f, 0f};
+    private static final float[] HARD_WEIGHTS = {0.5f, 0.5f, 1f, 1f};
+    private static final float[] INSANE_WEIGHTS = {1f, 0f, 1f, 1f};
+    // quanto a necessidade de treino (SkillStats.need, 0..1.5) aumenta o peso de uma operação
+    private static final float ADAPTIVE_GAIN = 2f;
+
+    // expressões: operandos soltos (ligados só por + e -) até 20; fatores, divisores e quocientes até 12
+    private static final int EXPRESSION_LEAF_MAX = 20;
+    private static final int EXPRESSION_FACTOR_MAX = 12;
+    private static final int EXPRESSION_TERM_ATTEMPTS = 4;
+
+    public QuestionGenerator() {
+        this(new SplittableRandom());
+    }
 
-        return q;
+    public QuestionGenerator(RandomGenerator rand) {
+        this(rand, new SkillStats());
     }
 
-    private Question generateForBase(String base) {
-        if ("infinito".equals(base)) {
-            if (consecutiveCorrects < 5) return generateMedium();
-            else if (consecutiveCorrects < 10) return generateHard();
-            else return generateInsane();
+    // skills pode ser o perfil já existente do aluno (continua adaptando de onde parou)
+    public QuestionGenerator(RandomGenerator rand, SkillStats skills) {
+        this.rand = rand;
+        this.skills = skills;
+    }
+
+    public SkillStats skills() {
+        return skills;
+    }
+
+    public QuestionTier lastTier() {
+        return lastTier;
+    }
+
+    // tamanho da janela sem repetição (ex.: 32 ou 256); 0 desliga
+    public void setRecentWindow(int size) {
+        recent = size > 0 ? new RecentQuestionWindow(size) : null;
+    }
+
+    public Question generate(String difficultyBase) {
+        return new Question(generateCode(difficultyBase));
+    }
+
+    // Mesma geração de generate(), mas devolve só o código empacotado (ver QuestionCodec), sem alocar nada
+    public long generateCode(String difficultyBase) {
+        int base = baseOf(difficultyBase);
+        long code = generateForBase(base);
+        if (recent != null) {
+            for (int attempt = 0; attempt < REPEAT_ATTEMPTS && recent.contains(code); attempt++) {
+                code = generateForBase(base);
+            }
+            recent.add(code);
         }
+        return code;
+    }
 
+    // evita toLowerCase() (e a String nova) a cada questão
+    private static int baseOf(String difficultyBase) {
+        if (difficultyBase == null) return BASE_FACIL;
+        if ("infinito".equalsIgnoreCase(difficultyBase)) return BASE_INFINITO;
+        if ("medio".equalsIgnoreCase(difficultyBase)) return BASE_MEDIO;
+        if ("dificil".equalsIgnoreCase(difficultyBase)) return BASE_DIFICIL;
+        if ("facil".equalsIgnoreCase(difficultyBase)) return BASE_FACIL;
+        return -1; // desconhecido: sempre fácil (default de generateForBase)
+    }
+
+    private long generateForBase(int base) {
         switch (base) {
-            case "facil":
+            case BASE_INFINITO:
+                if (consecutiveCorrects < 5) return generateMedium();
+                else if (consecutiveCorrects < 10) return generateHard();
+                else if (consecutiveCorrects < 15) return generateInsane();
+                else if (consecutiveCorrects < 25) return rand.nextBoolean() ? generateInsane() : generateExpression(2);
+                else return rand.nextBoolean() ? generateExpression(2) : generateExpression(3);
+            case BASE_FACIL:
                 if (consecutiveCorrects < 3) return generateEasy();
                 else if (consecutiveCorrects < 7) return generateMedium();
                 else if (consecutiveCorrects < 12) return generateHard();
                 else return generateInsane();
-            case "medio":
+            case BASE_MEDIO:
                 if (consecutiveCorrects < 2) return generateMedium();
                 else if (consecutiveCorrects < 6) return generateHard();
                 else return generateInsane();
-            case "dificil":
+            case BASE_DIFICIL:
                 if (consecutiveCorrects < 3) return generateHard();
                 else return generateInsane();
             default:
@@ -47,128 +140,232 @@ public class QuestionGenerator {
         }
     }
 
+    // questão de um nível fixo, sem a progressão por acertos (ex.: folhas de exercícios)
+    public long generateCode(QuestionTier tier) {
+        return switch (tier) {
+            case EASY -> generateEasy();
+            case MEDIUM -> generateMedium();
+            case HARD -> generateHard();
+            case INSANE -> generateInsane();
+            case EXPRESSION -> generateExpression(2);
+            case LONG_EXPRESSION -> generateExpression(3);
+        };
+    }
+
     public void recordAnswer(boolean correct) {
         if (correct) consecutiveCorrects++;
         else consecutiveCorrects = 0;
     }
 
+    // code = questão respondida; latencyNanos = tempo até a resposta (0 se não medido)
+    public void recordAnswer(long code, boolean correct, long latencyNanos) {
+        recordAnswer(correct);
+        skills.record(QuestionCodec.op(code), correct, latencyNanos);
+    }
+
+    public int consecutiveCorrects() {
+        return consecutiveCorrects;
+    }
+
+    // continuar uma partida salva com a mesma sequência de acertos
+    public void restoreProgress(int consecutiveCorrects) {
+        this.consecutiveCorrects = Math.max(0, consecutiveCorrects);
+    }
+
     public void resetProgress() {
         consecutiveCorrects = 0;
+        if (recent != null) recent.clear();
     }
 
-    private Question generateEasy() {
-        // Faixa pequena, adequada para 8-9 anos
-        int a = rand.nextInt(20) + 1; // 1..20
-        int b = rand.nextInt(20) + 1;
-        if (rand.nextBoolean()) {
+    private long generateEasy() {
+        lastTier = QuestionTier.EASY;
+        // Faixa pequena (1..20), adequada para 8-9 anos
+        if (pickOperation(EASY_WEIGHTS) == ADD) {
             // soma
-            return new Question(a + " + " + b + " ?", (double) (a + b));
+            return addition(20);
         } else {
-            // subtração sem negativo: garante a >= b
-            if (a < b) {
-                int t = a; a = b; b = t;
-            }
-            return new Question(a + " - " + b + " ?", (double) (a - b));
+            // subtração sem negativo (a >= b)
+            return pick(EASY_SUB);
         }
     }
 
-    private Question generateMedium() {
-        // Mistura de adição, subtração, multiplicação simples
-        int op = rand.nextInt(3);
-        if (op == 0) {
-            int a = rand.nextInt(50) + 1; // até 50
-            int b = rand.nextInt(50) + 1;
-            return new Question(a + " + " + b + " ?", (double) (a + b));
-        } else if (op == 1) {
-            int a = rand.nextInt(50) + 1;
-            int b = rand.nextInt(50) + 1;
-            if (a < b) { int t = a; a = b; b = t; }
-            return new Question(a + " - " + b + " ?", (double) (a - b));
-        } else {
-            // Multiplicação simples: fatores pequenos (<=12) para facilitar
-            int a = rand.nextInt(12) + 1;
-            int b = rand.nextInt(10) + 1;
-            int attempts = 0;
-            while ((long)a * b > 100 && attempts < 50) {
-                a = rand.nextInt(12) + 1;
-                b = rand.nextInt(10) + 1;
-                attempts++;
-            }
-            return new Question(a + " × " + b + " ?", (double) (a * b));
-        }
+    private long generateMedium() {
+        lastTier = QuestionTier.MEDIUM;
+        // Mistura de adição, subtração, multiplicação simples (valores até 50)
+        int op = pickOperation(MEDIUM_WEIGHTS);
+        if (op == ADD) return addition(50);
+        else if (op == SUB) return pick(MEDIUM_SUB);
+        else return pick(MEDIUM_MUL);
     }
 
-    private Question generateHard() {
+    private long generateHard() {
+        lastTier = QuestionTier.HARD;
         // Evita parênteses. Divisões exatas com valores pequenos; multiplicações limitadas.
-        int op = rand.nextInt(3);
-        if (op == 0) {
-            // soma/subtração valores moderados
-            int a = rand.nextInt(120) + 1; // até 120
-            int b = rand.nextInt(120) + 1;
-            if (rand.nextBoolean()) {
-                return new Question(a + " + " + b + " ?", (double) (a + b));
-            }
-            else {
-                if (a < b) { int t = a; a = b; b = t; }
-                return new Question(a + " - " + b + " ?", (double) (a - b));
-            }
-        } else if (op == 1) {
-            // divisão exata: geramos quociente q e divisor d (pequenos), depois a = q * d
-            int d = rand.nextInt(12) + 1; // divisor 1..12
-            int q = rand.nextInt(12) + 1; // quociente 1..12
-            int a = q * d;
-            return new Question(a + " ÷ " + d + " ?", (double) q);
-        } else {
-            // multiplicação com produto <= 100
-            int attempts = 0;
-            while (attempts < 200) {
-                int a = rand.nextInt(12) + 1; // 1..12
-                int b = rand.nextInt(12) + 1; // 1..12
-                long prod = (long) a * (long) b;
-                if (prod <= 100) {
-                    return new Question(a + " × " + b + " ?", (double) (a * b));
+        // soma/subtração valores moderados (até 120)
+        int op = pickOperation(HARD_WEIGHTS);
+        if (op == ADD) return addition(120);
+        else if (op == SUB) return pick(HARD_SUB);
+        else if (op == DIV) return pick(HARD_DIV);
+        else return pick(HARD_MUL);
+    }
+
+    private long generateInsane() {
+        lastTier = QuestionTier.INSANE;
+        int op = pickOperation(INSANE_WEIGHTS);
+        if (op == ADD) return addition(200);
+        else if (op == DIV) return pick(INSANE_DIV);
+        else return pick(INSANE_MUL);
+    }
+
+    // Sorteia a operação pelo peso base do nível, aumentado nas operações em que o aluno erra ou demora.
+    // Com o perfil inicial (todas iguais) a proporção é a mesma dos pesos base.
+    private int pickOperation(float[] base) {
+        float total = 0f;
+        for (int op = 0; op < SkillStats.SKILLS; op++) total += weight(base, op);
+        float r = rand.nextFloat() * total;
+        int last = ADD;
+        for (int op = 0; op < SkillStats.SKILLS; op++) {
+            float w = weight(base, op);
+            if (w <= 0f) continue;
+            if (r < w) return op;
+            r -= w;
+            last = op;
+        }
+        return last; // arredondamento de float: fica com a última operação possível
+    }
+
+    private float weight(float[] base, int op) {
+        return base[op] * (1f + ADAPTIVE_GAIN * skills.need(op));
+    }
+
+    // Conta com 2 ou 3 operações respeitando a precedência. Cada termo (operandos ligados por × e ÷) já é
+    // montado dentro das regras — produto até 100, divisão exata — e depois os termos são somados/subtraídos
+    // da esquerda para a direita sem deixar resultado parcial negativo. Sem laço de rejeição sobre a conta toda,
+    // exceto quando um termo não cabe numa subtração (raro).
+    private long generateExpression(int operations) {
+        lastTier = operations == 2 ? QuestionTier.EXPRESSION : QuestionTier.LONG_EXPRESSION;
+        ExpressionTemplate[] templates = ExpressionTemplate.withOperations(operations);
+        while (true) {
+            ExpressionTemplate t = templates[rand.nextInt(templates.length)];
+            if (buildExpression(t) && t.evaluate(expression) >= 0) return expression;
+        }
+    }
+
+    private boolean buildExpression(ExpressionTemplate t) {
+        expression = t.id;
+        int operands = t.operations() + 1;
+        int total = 0;
+        int joiner = ADD; // operação que liga o termo atual ao total
+        for (int first = 0; first < operands; ) {
+            int last = first;
+            while (last < t.operations() && t.op(last) >= MUL) last++;
+
+            int value;
+            if (joiner == ADD) {
+                value = buildTerm(t, first, last, EXPRESSION_LEAF_MAX);
+            } else {
+                if (total == 0) return false;
+                value = buildTerm(t, first, last, Math.min(EXPRESSION_LEAF_MAX, total));
+                for (int attempt = 1; value > total && attempt < EXPRESSION_TERM_ATTEMPTS; attempt++) {
+                    value = buildTerm(t, first, last, total);
                 }
-                attempts++;
+                if (value > total) return false;
             }
-            // fallback
-            int a = rand.nextInt(10) + 1;
-            int b = rand.nextInt(10) + 1;
-            return new Question(a + " × " + b + " ?", (double) (a * b));
+            total = joiner == ADD ? total + value : total - value;
+
+            if (last < t.operations()) joiner = t.op(last);
+            first = last + 1;
         }
+        return true;
     }
 
-    private Question generateInsane() {
-        int op = rand.nextInt(3);
-        if (op == 0) {
-            int a = rand.nextInt(200) + 1;
-            int b = rand.nextInt(200) + 1;
-            return new Question(a + " + " + b + " ?", (double) (a + b));
-        } else if (op == 1) {
-            int d = rand.nextInt(15) + 1; // divisor um pouco maior possível
-            int q = rand.nextInt(20) + 1; // quociente
-            int a = q * d;
-            return new Question(a + " ÷ " + d + " ?", (double) q);
+    // Termo com os operandos first..last (ligados por × e ÷); grava os operandos em expression e devolve o valor
+    private int buildTerm(ExpressionTemplate t, int first, int last, int maxLeaf) {
+        if (first == last) {
+            int v = rand.nextInt(maxLeaf) + 1;
+            expression = QuestionCodec.withOperand(expression, first, v);
+            return v;
+        }
+        int v;
+        if (t.op(first) == DIV) {
+            // dividendo = quociente × divisor: a primeira divisão é sempre exata
+            int d = rand.nextInt(EXPRESSION_FACTOR_MAX) + 1;
+            v = rand.nextInt(EXPRESSION_FACTOR_MAX) + 1;
+            expression = QuestionCodec.withOperand(expression, first, v * d);
+            expression = QuestionCodec.withOperand(expression, first + 1, d);
         } else {
-            int attempts = 0;
-            while (attempts < 300) {
-                int a = rand.nextInt(15) + 1;
-                int b = rand.nextInt(12) + 1;
-                long prod = (long) a * (long) b;
-                if (prod <= 100) {
-                    return new Question(a + " × " + b + " ?", (double) (a * b));
-                }
-                attempts++;
-            }
-            int a = rand.nextInt(12) + 1;
-            int b = rand.nextInt(10) + 1;
-            return new Question(a + " × " + b + " ?", (double) (a * b));
+            v = rand.nextInt(EXPRESSION_FACTOR_MAX) + 1;
+            int f = factorFor(v);
+            expression = QuestionCodec.withOperand(expression, first, v);
+            expression = QuestionCodec.withOperand(expression, first + 1, f);
+            v *= f;
+        }
+        for (int k = first + 1; k < last; k++) {
+            int x = t.op(k) == MUL ? factorFor(v) : divisorOf(v);
+            expression = QuestionCodec.withOperand(expression, k + 1, x);
+            v = t.op(k) == MUL ? v * x : v / x;
+        }
+        return v;
+    }
+
+    // fator que mantém o produto até MAX_PRODUCT
+    private int factorFor(int v) {
+        return rand.nextInt(Math.max(1, Math.min(EXPRESSION_FACTOR_MAX, MAX_PRODUCT / v))) + 1;
+    }
+
+    // divisor exato de v entre 2 e 12 (ou 1 se v não tiver nenhum), sorteado sem montar lista
+    private int divisorOf(int v) {
+        int max = Math.min(EXPRESSION_FACTOR_MAX, v);
+        int count = 0;
+        for (int d = 2; d <= max; d++) if (v % d == 0) count++;
+        if (count == 0) return 1;
+        int k = rand.nextInt(count);
+        for (int d = 2; d <= max; d++) {
+            if (v % d == 0 && k-- == 0) return d;
+        }
+        return 1;
+    }
+
+    // soma não tem restrição: os dois operandos são sorteados direto
+    private long addition(int max) {
+        int a = rand.nextInt(max) + 1;
+        int b = rand.nextInt(max) + 1;
+        return QuestionCodec.pack(ADD, a, b);
+    }
+
+    private long pick(long[] table) {
+        return table[rand.nextInt(table.length)];
+    }
+
+    // pares (a, b) em 1..max com a >= b (resultado nunca negativo)
+    private static long[] subtractionTable(int max) {
+        long[] table = new long[max * (max + 1) / 2];
+        int n = 0;
+        for (int a = 1; a <= max; a++) {
+            for (int b = 1; b <= a; b++) table[n++] = QuestionCodec.pack(SUB, a, b);
         }
+        return table;
     }
 
-    // Detecta se a pergunta é de multiplicação
-    private boolean isMultiplicationQuestion(Question q) {
-        if (q == null || q.text == null) return false;
-        String t = q.text.toLowerCase();
-        return t.contains("x") || t.contains("×") || t.contains("*") || t.contains("multiplic");
+    // pares (a, b) com a em 1..maxA, b em 1..maxB e produto <= 100
+    private static long[] multiplicationTable(int maxA, int maxB) {
+        int count = 0;
+        for (int a = 1; a <= maxA; a++) count += Math.min(maxB, MAX_PRODUCT / a);
+        long[] table = new long[count];
+        int n = 0;
+        for (int a = 1; a <= maxA; a++) {
+            for (int b = 1; b <= maxB && a * b <= MAX_PRODUCT; b++) table[n++] = QuestionCodec.pack(MUL, a, b);
+        }
+        return table;
+    }
+
+    // divisões exatas: divisor d em 1..maxDivisor, quociente q em 1..maxQuotient, dividendo a = q * d
+    private static long[] divisionTable(int maxDivisor, int maxQuotient) {
+        long[] table = new long[maxDivisor * maxQuotient];
+        int n = 0;
+        for (int d = 1; d <= maxDivisor; d++) {
+            for (int q = 1; q <= maxQuotient; q++) table[n++] = QuestionCodec.pack(DIV, q * d, d);
+        }
+        return table;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
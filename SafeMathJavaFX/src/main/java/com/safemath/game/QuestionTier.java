@@ -0,0 +1,25 @@
+package com.safemath.game;
+
+// Níveis de questão do QuestionGenerator (a progressão de cada modo escolhe entre eles).
+public enum QuestionTier {
+    EASY("facil"),
+    MEDIUM("medio"),
+    HARD("dificil"),
+    INSANE("insano"),
+    EXPRESSION("expressao"),            // duas operações, ex.: "12 ÷ 3 + 4"
+    LONG_EXPRESSION("expressao_longa"); // três operações, ex.: "12 ÷ 3 + 4 × 5"
+
+    public final String key;
+
+    QuestionTier(String key) {
+        this.key = key;
+    }
+
+    // aceita o nome em inglês ou em português (ex.: "medium" ou "medio")
+    public static QuestionTier parse(String s) {
+        for (QuestionTier t : values()) {
+            if (t.name().equalsIgnoreCase(s) || t.key.equalsIgnoreCase(s)) return t;
+        }
+        throw new IllegalArgumentException("Nível desconhecido: " + s);
+    }
+}
@@ -0,0 +1,103 @@
+package com.safemath.game;
+
+import java.util.Arrays;
+
+// Últimas N questões geradas (códigos do QuestionCodec), para o gerador evitar repetir a mesma conta em sequência.
+// Fila circular com os códigos na ordem em que saíram + tabela hash de endereçamento aberto (com quantas vezes
+// cada código está na fila) para consultar a janela. Arrays de tamanho fixo: contains/add são O(1) e não alocam.
+// O código 0 nunca é uma questão válida (operandos começam em 1), então marca posição vazia na tabela.
+public class RecentQuestionWindow {
+    private final long[] ring;
+    private final long[] table;
+    private final int[] counts;
+    private final int mask;
+    private int next = 0;
+    private int size = 0;
+
+    public RecentQuestionWindow(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacidade deve ser positiva: " + capacity);
+        ring = new long[capacity];
+        // no máximo metade da tabela ocupada: sondagens curtas
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        table = new long[tableSize];
+        counts = new int[tableSize];
+        mask = tableSize - 1;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(long code) {
+        if (code == 0) return false;
+        for (int i = slot(code); table[i] != 0; i = (i + 1) & mask) {
+            if (table[i] == code) return true;
+        }
+        return false;
+    }
+
+    // Registra a questão; com a janela cheia a mais antiga sai.
+    public void add(long code) {
+        if (code == 0) return;
+        if (size == ring.length) {
+            remove(ring[next]);
+        } else {
+            size++;
+        }
+        ring[next] = code;
+        next = (next + 1) % ring.length;
+        insert(code);
+    }
+
+    public void clear() {
+        Arrays.fill(ring, 0);
+        Arrays.fill(table, 0);
+        Arrays.fill(counts, 0);
+        next = 0;
+        size = 0;
+    }
+
+    private int slot(long code) {
+        long h = code * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & mask;
+    }
+
+    private void insert(long code) {
+        int i = slot(code);
+        while (table[i] != 0) {
+            if (table[i] == code) {
+                counts[i]++;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        table[i] = code;
+        counts[i] = 1;
+    }
+
+    // Remoção com deslocamento para trás (sondagem linear): sem lápides, a tabela não degrada com o tempo.
+    private void remove(long code) {
+        int i = slot(code);
+        while (table[i] != code) {
+            if (table[i] == 0) return;
+            i = (i + 1) & mask;
+        }
+        if (--counts[i] > 0) return;
+        int hole = i;
+        for (int j = (hole + 1) & mask; table[j] != 0; j = (j + 1) & mask) {
+            int home = slot(table[j]);
+            // a entrada em j pode ir para o buraco se o buraco estiver entre a posição ideal dela e j
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                table[hole] = table[j];
+                counts[hole] = counts[j];
+                hole = j;
+            }
+        }
+        table[hole] = 0;
+        counts[hole] = 0;
+    }
+}
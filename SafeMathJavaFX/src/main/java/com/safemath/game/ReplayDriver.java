@@ -0,0 +1,205 @@
+package com.safemath.game;
+
+import javafx.application.Platform;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Reproduz gravações do InputRecorder num GamePane de verdade, sem janela: o Game é recriado com a mesma
+// semente e modo, e cada ação entra pelo mesmo caminho dos eventos de mouse/teclado, na thread do JavaFX.
+// Serve para teste de regressão (o estado final tem que bater com a linha END da gravação) e para medir
+// quanto a thread do JavaFX gasta por turno (de enviar a resposta até a próxima questão na tela).
+//
+// Uso: ReplayDriver [--fast] gravação.txt [gravação2.txt ...]
+//   --fast  não espera o intervalo gravado entre as ações (carga máxima)
+// Sai com código 1 se alguma gravação terminar num estado diferente do gravado.
+public class ReplayDriver {
+
+    // tempo máximo esperando a thread do JavaFX terminar uma ação
+    private static final long ACTION_TIMEOUT_SECONDS = 10;
+
+    // uma gravação já lida do arquivo
+    public static class Recording {
+        public final Path file;
+        public long seed;
+        public Mode mode = Mode.MATEMATICA;
+        public final List<String[]> events = new ArrayList<>(); // {ms, tipo, resto da linha}
+        public int[] end; // {vida do jogador, vida do chefe, chefes derrotados} ou null se a partida não terminou
+
+        Recording(Path file) {
+            this.file = file;
+        }
+    }
+
+    public static Recording read(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if (lines.isEmpty() || !InputRecorder.HEADER.equals(lines.get(0))) {
+            throw new IOException("não é uma gravação do SafeMath: " + file);
+        }
+        Recording rec = new Recording(file);
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isEmpty()) continue;
+            String[] parts = line.split(" ", 3);
+            if (parts[0].equals("seed")) {
+                rec.seed = Long.parseLong(parts[1]);
+            } else if (parts[0].equals("mode")) {
+                rec.mode = Mode.parse(parts[1]);
+            } else if (parts.length >= 2) {
+                String rest = parts.length == 3 ? parts[2] : "";
+                if (parts[1].equals("END")) {
+                    String[] v = rest.split(" ");
+                    rec.end = new int[]{Integer.parseInt(v[0]), Integer.parseInt(v[1]), Integer.parseInt(v[2])};
+                } else {
+                    rec.events.add(new String[]{parts[0], parts[1], rest});
+                }
+            }
+        }
+        return rec;
+    }
+
+    private final boolean fast;
+    // duração de cada ANSWER na thread do JavaFX, em ns (todas as gravações)
+    private long[] turnNanos = new long[256];
+    private int turns = 0;
+
+    public ReplayDriver(boolean fast) {
+        this.fast = fast;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean fast = false;
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--fast")) fast = true;
+            else if (arg.startsWith("--")) {
+                System.err.println("Argumento desconhecido: " + arg);
+                System.exit(1);
+            } else files.add(Paths.get(arg));
+        }
+        if (files.isEmpty()) {
+            System.err.println("Uso: ReplayDriver [--fast] gravação.txt [gravação2.txt ...]");
+            System.exit(1);
+        }
+
+        // sem Stage: o toolkit só é iniciado para os controles e animações do GamePane funcionarem
+        Platform.setImplicitExit(false);
+        Platform.startup(() -> {});
+
+        ReplayDriver driver = new ReplayDriver(fast);
+        int mismatches = 0;
+        long start = System.nanoTime();
+        for (Path file : files) {
+            if (!driver.replay(read(file))) mismatches++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d gravações em %.2f s, %d divergentes%n", files.size(), seconds, mismatches);
+        driver.printTurnStats();
+
+        Platform.exit();
+        System.exit(mismatches == 0 ? 0 : 1);
+    }
+
+    // reproduz uma gravação; true se o estado final bate com o gravado
+    public boolean replay(Recording rec) throws Exception {
+        Game game = new Game(rec.seed);
+        game.setMode(rec.mode);
+        GamePane[] pane = new GamePane[1];
+        onFx(() -> pane[0] = new GamePane(game, null, null));
+
+        long start = System.nanoTime();
+        for (String[] ev : rec.events) {
+            if (!fast) {
+                long due = start + Long.parseLong(ev[0]) * 1_000_000L;
+                long wait = due - System.nanoTime();
+                if (wait > 0) TimeUnit.NANOSECONDS.sleep(wait);
+            }
+            String rest = ev[2];
+            switch (ev[1]) {
+                case "CARD" -> onFx(() -> pane[0].replayCardClick(Integer.parseInt(rest)));
+                case "ANSWER" -> {
+                    String[] a = rest.split(" ", 3);
+                    long latency = Long.parseLong(a[0]);
+                    boolean enter = a[1].equals("1");
+                    String text = a.length == 3 ? a[2] : "";
+                    long took = onFx(() -> pane[0].replayAnswer(text, latency, enter));
+                    addTurn(took);
+                }
+                case "PAUSE" -> onFx(pane[0]::replayPause);
+                case "RESUME" -> onFx(pane[0]::replayResume);
+                case "MENU" -> { } // no replay não há menu; o estado final é conferido abaixo
+                default -> System.err.println("Ação desconhecida na gravação " + rec.file + ": " + ev[1]);
+            }
+        }
+
+        int[] state = new int[3];
+        onFx(() -> {
+            state[0] = game.player.getHealth();
+            state[1] = game.currentBoss != null ? game.currentBoss.health : 0;
+            state[2] = game.bossesDefeated;
+        });
+        if (rec.end == null) {
+            System.out.println(rec.file + ": sem linha END (partida não terminou), estado final " + Arrays.toString(state));
+            return true;
+        }
+        boolean same = Arrays.equals(rec.end, state);
+        System.out.println(rec.file + ": " + (same ? "ok" : "DIVERGENTE — gravado " + Arrays.toString(rec.end)
+                + ", reproduzido " + Arrays.toString(state)) + " (" + rec.events.size() + " ações)");
+        return same;
+    }
+
+    // roda a ação na thread do JavaFX e espera terminar; devolve quanto tempo ela levou lá dentro (ns)
+    private static long onFx(Runnable action) throws Exception {
+        long[] took = new long[1];
+        Throwable[] failure = new Throwable[1];
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.runLater(() -> {
+            long t0 = System.nanoTime();
+            try {
+                action.run();
+            } catch (Throwable ex) {
+                failure[0] = ex;
+            } finally {
+                took[0] = System.nanoTime() - t0;
+                done.countDown();
+            }
+        });
+        if (!done.await(ACTION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("thread do JavaFX não respondeu em " + ACTION_TIMEOUT_SECONDS + " s");
+        }
+        if (failure[0] != null) throw new IllegalStateException("erro ao reproduzir ação", failure[0]);
+        return took[0];
+    }
+
+    private void addTurn(long nanos) {
+        if (turns == turnNanos.length) turnNanos = Arrays.copyOf(turnNanos, turns * 2);
+        turnNanos[turns++] = nanos;
+    }
+
+    public void printTurnStats() {
+        if (turns == 0) {
+            System.out.println("Nenhum turno reproduzido");
+            return;
+        }
+        long[] sorted = Arrays.copyOf(turnNanos, turns);
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (long t : sorted) sum += t;
+        System.out.printf("Turnos: %d, média %.3f ms, p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, máx %.3f ms%n",
+                turns, sum / 1e6 / turns, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                percentile(sorted, 0.99), sorted[turns - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int i = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, i)] / 1e6;
+    }
+}
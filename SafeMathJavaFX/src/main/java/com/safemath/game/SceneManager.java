@@ -0,0 +1,100 @@
+package com.safemath.game;
+
+import javafx.application.Platform;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Supplier;
+
+// Uma única Scene por Stage: menu e jogo apenas trocam a root. O menu é construído uma vez e reaproveitado,
+// a folha de estilos global é resolvida uma vez por processo e a fonte fica numa folha .root da própria Scene,
+// então vale para qualquer root sem sobrescrever o estilo inline de cada tela.
+public class SceneManager {
+
+    private static final String GLOBAL_CSS = "/styles/global.css";
+
+    // URL do global.css resolvida uma vez (null se o arquivo não existir)
+    private static String globalCssUrl = null;
+    private static boolean globalCssResolved = false;
+
+    private final Stage stage;
+    private final Scene scene;
+    private Parent menuRoot = null;
+    private String fontStylesheet = null;
+
+    public SceneManager(Stage stage, Parent initialRoot, double width, double height) {
+        this.stage = stage;
+        this.scene = new Scene(initialRoot, width, height);
+        String css = globalStylesheet();
+        if (css != null) scene.getStylesheets().add(css);
+        stage.setScene(scene);
+    }
+
+    public Scene getScene() {
+        return scene;
+    }
+
+    // aplica a família da fonte a todas as telas desta Scene
+    public void setFontFamily(String family) {
+        if (fontStylesheet != null) scene.getStylesheets().remove(fontStylesheet);
+        fontStylesheet = null;
+        if (family == null) return;
+        String css = ".root { -fx-font-family: '" + family + "'; }";
+        fontStylesheet = "data:text/css;base64,"
+                + Base64.getEncoder().encodeToString(css.getBytes(StandardCharsets.UTF_8));
+        scene.getStylesheets().add(fontStylesheet);
+    }
+
+    // mostra o menu (construído só na primeira vez)
+    public void showMenu(Supplier<Parent> factory, String title) {
+        if (menuRoot == null) menuRoot = factory.get();
+        show(menuRoot, title, "→ menu");
+    }
+
+    // troca a root e registra no console quanto tempo levou até o quadro seguinte
+    public void show(Parent root, String title, String transition) {
+        long start = System.nanoTime();
+        scene.setRoot(root);
+        stage.setTitle(title);
+        if (!stage.isShowing()) stage.show();
+        onNextFrame(scene, () -> System.out.println("Troca de tela (" + transition + "): "
+                + (System.nanoTime() - start) / 1_000_000 + " ms"));
+    }
+
+    // executa a ação no próximo pulso de layout da cena (uma vez só)
+    public static void onNextFrame(Scene scene, Runnable action) {
+        Runnable[] listener = new Runnable[1];
+        boolean[] done = new boolean[1]; // só na thread do JavaFX
+        listener[0] = () -> {
+            // pulsos que chegarem antes da remoção abaixo não repetem a ação
+            if (done[0]) return;
+            done[0] = true;
+            // remoção adiada: a cena ainda está percorrendo a lista de listeners
+            Platform.runLater(() -> scene.removePostLayoutPulseListener(listener[0]));
+            action.run();
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private static synchronized String globalStylesheet() {
+        if (!globalCssResolved) {
+            globalCssResolved = true;
+            try {
+                URL url = SceneManager.class.getResource(GLOBAL_CSS);
+                if (url != null) {
+                    globalCssUrl = url.toExternalForm();
+                } else {
+                    // opcional: informe que o CSS não foi encontrado
+                    System.err.println("Aviso: " + GLOBAL_CSS + " não encontrado (estilos globais não aplicados).");
+                }
+            } catch (Exception e) {
+                System.err.println("Erro ao carregar global.css: " + e.getMessage());
+            }
+        }
+        return globalCssUrl;
+    }
+}
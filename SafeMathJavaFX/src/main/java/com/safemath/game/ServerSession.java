@@ -0,0 +1,155 @@
+package com.safemath.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Uma partida hospedada pelo GameServer: Game + BattleEngine próprios, sem JavaFX e sem nada
+// compartilhado com as outras sessões. Os métodos são sincronizados porque o mesmo aluno pode
+// mandar duas respostas ao mesmo tempo (duplo clique, aba duplicada).
+class ServerSession implements GameListener {
+    final String id;
+    private final Game game;
+    private final BattleEngine engine;
+
+    private Question currentQuestion;
+    private long questionShownNanos;
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    // avisos do Game desde a última resposta (chefe derrotado, animal desbloqueado...)
+    private final List<String> events = new ArrayList<>();
+
+    ServerSession(String id, Mode mode, Long seed) {
+        this.id = id;
+        this.game = seed != null ? new Game(seed) : new Game();
+        game.setMode(mode);
+        game.setListener(this);
+        this.engine = new BattleEngine(game);
+        nextQuestion();
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    synchronized String stateJson() {
+        lastAccessNanos = System.nanoTime();
+        StringBuilder sb = new StringBuilder(512).append('{');
+        appendState(sb);
+        return sb.append('}').toString();
+    }
+
+    // Processa uma resposta; animalIndex < 0 (ou animal indisponível) usa o animal atual, como no GamePane.
+    synchronized String answerJson(String answer, int animalIndex) {
+        lastAccessNanos = System.nanoTime();
+        StringBuilder sb = new StringBuilder(768).append('{');
+        if (game.isFinished()) {
+            sb.append("\"error\":\"partida encerrada\",");
+            appendState(sb);
+            return sb.append('}').toString();
+        }
+
+        Question q = currentQuestion;
+        AnswerChecker.Outcome outcome = AnswerChecker.check(answer, q);
+        Animal selected = game.currentAnimal;
+        if (animalIndex >= 0 && animalIndex < game.animals.size() && game.isAvailable(game.animals.get(animalIndex))) {
+            selected = game.animals.get(animalIndex);
+        }
+        // como no GamePane: animal em cooldown (escolha antiga da página ou o atual) cede a vez ao disponível
+        // mais próximo, senão o turno de ataque é perdido mesmo com a resposta certa
+        if (game.isPlayerTurn() && !selected.canAttack()) selected = game.findPreviousAvailable(selected);
+
+        events.clear();
+        long latency = System.nanoTime() - questionShownNanos;
+        TurnResult r = engine.submitAnswer(selected, q, outcome == AnswerChecker.Outcome.CORRECT, latency);
+        if (!game.isFinished()) nextQuestion();
+
+        sb.append("\"outcome\":\"").append(outcome).append("\",");
+        sb.append("\"answer\":").append(q.answer).append(',');
+        sb.append("\"turn\":{\"attack\":").append(r.attackTurn)
+                .append(",\"selected\":").append(r.attackTurn ? selected.index : -1)
+                .append(",\"attacked\":").append(r.attacked)
+                .append(",\"attacker\":").append(r.attacker != null ? quote(r.attacker.name) : "null")
+                .append(",\"bossDamage\":").append(r.bossDamage)
+                .append(",\"cooldown\":").append(r.cooldownApplied)
+                .append(",\"bossDefeated\":").append(r.bossDefeated)
+                .append(",\"playerDamage\":").append(r.playerDamage)
+                .append(",\"playerDefeated\":").append(r.playerDefeated)
+                .append("},\"events\":[");
+        for (int i = 0; i < events.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append(quote(events.get(i)));
+        }
+        sb.append("],");
+        appendState(sb);
+        return sb.append('}').toString();
+    }
+
+    private void nextQuestion() {
+        currentQuestion = engine.nextQuestion();
+        questionShownNanos = System.nanoTime();
+    }
+
+    private void appendState(StringBuilder sb) {
+        sb.append("\"id\":").append(quote(id));
+        sb.append(",\"mode\":").append(quote(game.getMode().label));
+        sb.append(",\"seed\":").append(game.getSeed());
+        sb.append(",\"playerTurn\":").append(game.isPlayerTurn());
+        sb.append(",\"finished\":").append(game.isFinished());
+        sb.append(",\"arcadeStage\":").append(game.arcadeStage);
+        sb.append(",\"player\":{\"hp\":").append(game.player.getHealth())
+                .append(",\"max\":").append(game.player.getMaxHealth()).append('}');
+        if (game.currentBoss != null) {
+            sb.append(",\"boss\":{\"hp\":").append(game.currentBoss.health)
+                    .append(",\"max\":").append(game.currentBoss.maxHealth).append('}');
+        }
+        sb.append(",\"animals\":[");
+        for (int i = 0; i < game.animals.size(); i++) {
+            Animal a = game.animals.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":").append(quote(a.name))
+                    .append(",\"force\":").append(a.force)
+                    .append(",\"cooldown\":").append(a.cooldown())
+                    .append(",\"available\":").append(game.isAvailable(a))
+                    .append('}');
+        }
+        sb.append(']');
+        sb.append(",\"question\":").append(game.isFinished() || currentQuestion == null ? "null" : quote(currentQuestion.text()));
+    }
+
+    static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    @Override
+    public void onAnimalUnlocked(Animal animal) {
+        events.add("Novo animal desbloqueado: " + animal.name);
+    }
+
+    @Override
+    public void onBossDefeated() {
+        events.add("Você derrotou o chefe!");
+    }
+
+    @Override
+    public void onModeVictory() {
+        events.add("VOCÊ VENCEU O MODO " + game.getMode().label.toUpperCase() + "!");
+    }
+
+    @Override
+    public void onGameOver() {
+        events.add("Fim de jogo");
+    }
+}
@@ -0,0 +1,56 @@
+package com.safemath.game;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// Fontes aleatórias de uma sessão, todas derivadas de uma única semente: a mesma semente reproduz
+// exatamente a mesma sequência de questões e de danos. Cada sessão tem geradores próprios
+// (divididos de um SplittableRandom), então várias sessões rodam em paralelo sem estado compartilhado.
+// Os geradores de uma sessão não são thread-safe: use cada sessão a partir de uma thread por vez.
+public final class SessionRandom {
+    private final long seed;
+    private final RandomGenerator questions;
+    private final RandomGenerator damage;
+    private final RandomGenerator checkpoints;
+
+    public SessionRandom(long seed) {
+        this(seed, seed);
+    }
+
+    // Sessão continuada de um save: seed() continua a semente original da partida, mas os geradores partem
+    // de streamSeed (ver continuationSeed), para não repetir as questões do começo.
+    public SessionRandom(long seed, long streamSeed) {
+        this.seed = seed;
+        SplittableRandom root = new SplittableRandom(streamSeed);
+        // a ordem dos split() faz parte da reprodutibilidade: não alterar (novos geradores só no fim)
+        this.questions = root.split();
+        this.damage = root.split();
+        this.checkpoints = root.split();
+    }
+
+    // sessão nova com semente aleatória (sem disputa entre threads)
+    public static SessionRandom newSession() {
+        return new SessionRandom(ThreadLocalRandom.current().nextLong());
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    // questões geradas pelo QuestionGenerator da sessão
+    public RandomGenerator questions() {
+        return questions;
+    }
+
+    // sorteios do Game (dano do contra-ataque do chefe)
+    public RandomGenerator damage() {
+        return damage;
+    }
+
+    // semente para continuar a sessão depois de restaurar um save; sai de um gerador só dela, então salvar
+    // não muda a sequência de questões e danos da partida em andamento
+    public long continuationSeed() {
+        return checkpoints.nextLong();
+    }
+}
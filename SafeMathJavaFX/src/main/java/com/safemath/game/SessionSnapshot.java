@@ -0,0 +1,178 @@
+package com.safemath.game;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+// Estado de uma partida em andamento num binário pequeno (119 bytes com os 5 animais), para continuar depois
+// de um travamento ou da janela fechada sem querer. Formato (big-endian):
+//   "SMSV", versão (short), modo (byte), animal atual (int; byte até a versão 2), fase do Arcade (byte),
+//   turno de ataque (byte), semente (long), vida do chefe e máxima (int, int), vida do jogador e máxima (int, int),
+//   quantidade de animais (int; byte até a versão 2) + cooldown de cada um (short), acertos seguidos (int),
+//   SkillStats: acerto e tempo médio (float, float) de cada operação,
+//   (versão 2) chefes derrotados (int), dano causado (long), sequência atual e maior (int, int),
+//   (versão 4) semente de continuação (long),
+//   CRC32 de tudo antes (int).
+// A partida restaurada mantém a semente original, mas os geradores partem da semente de continuação
+// (SessionRandom.continuationSeed): sem ela o aluno veria de novo as questões do começo da partida.
+// Saves até a versão 3 continuam da semente original.
+public class SessionSnapshot {
+    private static final int MAGIC = 0x534D5356; // "SMSV"
+    private static final short VERSION = 4;
+    // versão 3: índice do animal e tamanho do elenco em int (elencos com mais de 127 animais)
+    // versão 4: semente de continuação
+
+    public int modeIndex;
+    public long seed;
+    public long continuationSeed;
+    public int animalIndex;
+    public int arcadeStage;
+    public boolean playerTurn;
+    public int bossHealth;
+    public int bossMaxHealth;
+    public int playerHealth;
+    public int playerMaxHealth;
+    public int[] cooldowns;
+    public int consecutiveCorrects;
+    public float[] accuracy = new float[SkillStats.SKILLS];
+    public float[] latencyMs = new float[SkillStats.SKILLS];
+    public int bossesDefeated;
+    public long damageDealt;
+    public int streak;
+    public int longestStreak;
+
+    public static SessionSnapshot capture(Game game) {
+        SessionSnapshot s = new SessionSnapshot();
+        s.modeIndex = game.modeIndex();
+        s.seed = game.getSeed();
+        s.continuationSeed = game.continuationSeed();
+        s.animalIndex = Math.max(0, game.currentAnimal.index);
+        s.arcadeStage = game.arcadeStage;
+        s.playerTurn = game.isPlayerTurn();
+        if (game.currentBoss != null) {
+            s.bossHealth = game.currentBoss.health;
+            s.bossMaxHealth = game.currentBoss.maxHealth;
+        }
+        s.playerHealth = game.player.getHealth();
+        s.playerMaxHealth = game.player.getMaxHealth();
+        s.cooldowns = new int[game.animals.size()];
+        for (int i = 0; i < s.cooldowns.length; i++) s.cooldowns[i] = game.animals.get(i).cooldown();
+        s.consecutiveCorrects = game.qGen.consecutiveCorrects();
+        SkillStats skills = game.qGen.skills();
+        for (int i = 0; i < SkillStats.SKILLS; i++) {
+            s.accuracy[i] = skills.accuracy(i);
+            s.latencyMs[i] = skills.latencyMs(i);
+        }
+        s.bossesDefeated = game.bossesDefeated;
+        s.damageDealt = game.damageDealt;
+        s.streak = game.streak;
+        s.longestStreak = game.longestStreak;
+        return s;
+    }
+
+    public byte[] encode() {
+        ByteBuffer buf = ByteBuffer.allocate(4 + 2 + 7 + 8 + 16 + 4 + cooldowns.length * 2 + 4
+                + SkillStats.SKILLS * 8 + 4 + 8 + 4 + 4 + 8 + 4);
+        buf.putInt(MAGIC);
+        buf.putShort(VERSION);
+        buf.put((byte) modeIndex);
+        buf.putInt(animalIndex);
+        buf.put((byte) arcadeStage);
+        buf.put((byte) (playerTurn ? 1 : 0));
+        buf.putLong(seed);
+        buf.putInt(bossHealth);
+        buf.putInt(bossMaxHealth);
+        buf.putInt(playerHealth);
+        buf.putInt(playerMaxHealth);
+        buf.putInt(cooldowns.length);
+        for (int c : cooldowns) buf.putShort((short) Math.min(c, Short.MAX_VALUE));
+        buf.putInt(consecutiveCorrects);
+        for (int i = 0; i < SkillStats.SKILLS; i++) {
+            buf.putFloat(accuracy[i]);
+            buf.putFloat(latencyMs[i]);
+        }
+        buf.putInt(bossesDefeated);
+        buf.putLong(damageDealt);
+        buf.putInt(streak);
+        buf.putInt(longestStreak);
+        buf.putLong(continuationSeed);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+        return buf.array();
+    }
+
+    public static SessionSnapshot decode(byte[] data) throws IOException {
+        try {
+            ByteBuffer buf = ByteBuffer.wrap(data);
+            if (buf.getInt() != MAGIC) throw new IOException("não é um save do SafeMath");
+            short version = buf.getShort();
+            if (version < 1 || version > VERSION) throw new IOException("versão de save não suportada: " + version);
+            CRC32 crc = new CRC32();
+            crc.update(data, 0, data.length - 4);
+            if ((int) crc.getValue() != ByteBuffer.wrap(data, data.length - 4, 4).getInt()) {
+                throw new IOException("save corrompido (CRC)");
+            }
+
+            SessionSnapshot s = new SessionSnapshot();
+            s.modeIndex = buf.get();
+            s.animalIndex = version >= 3 ? buf.getInt() : buf.get();
+            if (s.animalIndex < 0) throw new IOException("save corrompido (animal " + s.animalIndex + ")");
+            s.arcadeStage = buf.get();
+            s.playerTurn = buf.get() != 0;
+            s.seed = buf.getLong();
+            s.bossHealth = buf.getInt();
+            s.bossMaxHealth = buf.getInt();
+            s.playerHealth = buf.getInt();
+            s.playerMaxHealth = buf.getInt();
+            int animals = version >= 3 ? buf.getInt() : buf.get();
+            // confere antes de alocar: cada animal ocupa 2 bytes no que sobrou do arquivo
+            if (animals < 0 || animals > buf.remaining() / 2) {
+                throw new IOException("save corrompido (" + animals + " animais)");
+            }
+            s.cooldowns = new int[animals];
+            for (int i = 0; i < s.cooldowns.length; i++) s.cooldowns[i] = buf.getShort();
+            s.consecutiveCorrects = buf.getInt();
+            for (int i = 0; i < SkillStats.SKILLS; i++) {
+                s.accuracy[i] = buf.getFloat();
+                s.latencyMs[i] = buf.getFloat();
+            }
+            if (version >= 2) {
+                s.bossesDefeated = buf.getInt();
+                s.damageDealt = buf.getLong();
+                s.streak = buf.getInt();
+                s.longestStreak = buf.getInt();
+            }
+            s.continuationSeed = version >= 4 ? buf.getLong() : s.seed;
+            return s;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IOException("save incompleto");
+        }
+    }
+
+    // Game novo (mesma semente, geradores a partir da semente de continuação) com o estado salvo por cima
+    public Game restore() {
+        Game game = new Game(seed, continuationSeed);
+        game.setMode(Mode.fromIndex(modeIndex));
+        game.arcadeStage = arcadeStage;
+        if (animalIndex >= 0 && animalIndex < game.animals.size()) game.currentAnimal = game.animals.get(animalIndex);
+
+        Boss boss = new Boss("Chefe", bossMaxHealth);
+        boss.health = bossHealth;
+        game.currentBoss = boss;
+
+        game.player.setHealth(playerHealth);
+        for (int i = 0; i < cooldowns.length && i < game.animals.size(); i++) {
+            game.cooldowns.start(game.animals.get(i), cooldowns[i]);
+        }
+        game.setPlayerTurn(playerTurn);
+        game.qGen.restoreProgress(consecutiveCorrects);
+        for (int i = 0; i < SkillStats.SKILLS; i++) game.qGen.skills().restore(i, accuracy[i], latencyMs[i]);
+        game.bossesDefeated = bossesDefeated;
+        game.damageDealt = damageDealt;
+        game.streak = streak;
+        game.longestStreak = longestStreak;
+        return game;
+    }
+}
@@ -0,0 +1,79 @@
+package com.safemath.game;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Arquivo do save da partida em andamento (SessionSnapshot). A captura é feita na thread do JavaFX
+// (alguns campos, sem E/S) e a gravação numa thread própria: arquivo temporário + move atômico, então
+// um travamento no meio da gravação deixa o save anterior intacto. Gravar e apagar passam pela mesma
+// fila, na ordem em que foram pedidos.
+public final class SessionStore {
+    private final Path file;
+    private final Path tmp;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "session-save");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SessionStore(Path file) {
+        this.file = file;
+        this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    // fim de turno: partida encerrada apaga o save, senão grava o estado atual
+    public void save(Game game) {
+        if (game.isFinished()) {
+            delete();
+            return;
+        }
+        byte[] data = SessionSnapshot.capture(game).encode();
+        writer.execute(() -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(tmp, data);
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException ex) {
+                System.err.println("Erro ao salvar a partida: " + ex.getMessage());
+            }
+        });
+    }
+
+    public void delete() {
+        writer.execute(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                System.err.println("Erro ao apagar o save: " + ex.getMessage());
+            }
+        });
+    }
+
+    // save válido deixado pela última execução, ou null
+    public SessionSnapshot load() {
+        try {
+            return SessionSnapshot.decode(Files.readAllBytes(file));
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException ex) {
+            System.err.println("Save ignorado (" + file + "): " + ex.getMessage());
+            return null;
+        }
+    }
+
+    // espera as gravações pendentes (ao fechar o programa)
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.safemath.game;
+
+// Desempenho do aluno por operação (soma, subtração, multiplicação, divisão): média móvel exponencial
+// do acerto e do tempo de resposta. Memória constante (dois float[4]) e atualização O(1), sem alocação,
+// então dá para manter milhares de perfis em memória. Final porque o construtor usa reset().
+public final class SkillStats {
+    public static final int SKILLS = 4;
+
+    // peso da resposta mais recente na média móvel
+    private static final float ALPHA = 0.2f;
+    private static final float INITIAL_ACCURACY = 0.75f;
+    private static final float INITIAL_LATENCY_MS = 8000f;
+    // a partir deste tempo a resposta conta como "lenta" (necessidade máxima pelo tempo)
+    private static final float SLOW_MS = 20000f;
+
+    private final float[] accuracy = new float[SKILLS];
+    private final float[] latencyMs = new float[SKILLS];
+
+    public SkillStats() {
+        reset();
+    }
+
+    public void reset() {
+        for (int i = 0; i < SKILLS; i++) {
+            accuracy[i] = INITIAL_ACCURACY;
+            latencyMs[i] = INITIAL_LATENCY_MS;
+        }
+    }
+
+    // skill = operação da questão (QuestionCodec.ADD..DIV); latencyNanos <= 0 não altera o tempo médio
+    public void record(int skill, boolean correct, long latencyNanos) {
+        if (skill < 0 || skill >= SKILLS) return;
+        accuracy[skill] += ALPHA * ((correct ? 1f : 0f) - accuracy[skill]);
+        if (latencyNanos > 0) {
+            latencyMs[skill] += ALPHA * (latencyNanos / 1_000_000f - latencyMs[skill]);
+        }
+    }
+
+    // valores salvos de uma partida anterior (SessionSnapshot)
+    public void restore(int skill, float accuracy, float latencyMs) {
+        this.accuracy[skill] = accuracy;
+        this.latencyMs[skill] = latencyMs;
+    }
+
+    public float accuracy(int skill) {
+        return accuracy[skill];
+    }
+
+    public float latencyMs(int skill) {
+        return latencyMs[skill];
+    }
+
+    // Quanto a operação precisa de treino: 0 (domina e responde rápido) até 1.5 (erra tudo e demora)
+    public float need(int skill) {
+        float slow = Math.min(latencyMs[skill] / SLOW_MS, 1f);
+        return (1f - accuracy[skill]) + 0.5f * slow;
+    }
+}
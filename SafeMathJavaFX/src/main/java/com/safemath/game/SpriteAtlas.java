@@ -0,0 +1,97 @@
+package com.safemath.game;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// Atlas de sprites gerado no build (ver SpriteAtlasPacker): uma única imagem decodificada/enviada à GPU
+// e, para cada sprite, a região correspondente usada como viewport do ImageView.
+// Se o atlas não existir (ex.: rodando direto da IDE sem o passo do Maven), apply() devolve false
+// e quem chamou segue com o carregamento avulso pelo ImageCache.
+public final class SpriteAtlas {
+
+    private static final String IMAGE_PATH = "/atlas/sprites.png";
+    private static final String INDEX_PATH = "/atlas/sprites.properties";
+
+    private static Image image = null;
+    private static final Map<String, Rectangle2D> regions = new HashMap<>();
+    private static boolean loaded = false;
+
+    // sprites que vão para o atlas (lidos pelo SpriteAtlasPacker no build e pelo AssetPreloader quando não há atlas)
+    static final String[] ANIMAL_SPRITES = {
+            "/images/coelho.png",
+            "/images/gato.png",
+            "/images/cachorro.png",
+            "/images/leao.png",
+            "/images/tigre.png"
+    };
+
+    static final String[] BOSS_SPRITES = {
+            "/images/matematica/boss1.png",
+            "/images/matematica/boss2.png",
+            "/images/matematica/boss3.png",
+            "/images/matematica/boss4.png",
+            "/images/matematica/boss5.png",
+            "/images/arcade/boss1.png",
+            "/images/arcade/boss2.png",
+            "/images/arcade/boss3.png"
+    };
+
+    static final String[] BOSS_INFINITO_SPRITES = {
+            "/images/infinito/boss1.png"
+    };
+
+    private SpriteAtlas() {}
+
+    // carrega o atlas uma única vez; pode ser chamado de qualquer thread (ex.: pré-carga na inicialização)
+    public static synchronized boolean load() {
+        if (loaded) return image != null;
+        loaded = true;
+        try (InputStream in = SpriteAtlas.class.getResourceAsStream(INDEX_PATH)) {
+            if (in == null) {
+                System.err.println("SpriteAtlas: índice não encontrado (" + INDEX_PATH + "), usando imagens avulsas.");
+                return false;
+            }
+            Properties index = new Properties();
+            index.load(in);
+            for (String path : index.stringPropertyNames()) {
+                String[] p = index.getProperty(path).split(",");
+                regions.put(path, new Rectangle2D(
+                        Integer.parseInt(p[0].trim()), Integer.parseInt(p[1].trim()),
+                        Integer.parseInt(p[2].trim()), Integer.parseInt(p[3].trim())));
+            }
+        } catch (Exception ex) {
+            System.err.println("Erro ao ler índice do atlas: " + ex.getMessage());
+            regions.clear();
+            return false;
+        }
+        image = ImageCache.get(IMAGE_PATH);
+        if (image == null) regions.clear();
+        return image != null;
+    }
+
+    public static synchronized Rectangle2D region(String path) {
+        if (!load()) return null;
+        return regions.get(path);
+    }
+
+    // aponta o ImageView para o sprite dentro do atlas; false se o sprite não está no atlas
+    public static boolean apply(ImageView view, String path) {
+        Rectangle2D r = region(path);
+        if (r == null) return false;
+        view.setImage(image);
+        view.setViewport(r);
+        return true;
+    }
+
+    // ImageView novo já recortado no sprite (null se o sprite não está no atlas)
+    public static ImageView view(String path) {
+        ImageView view = new ImageView();
+        return apply(view, path) ? view : null;
+    }
+}
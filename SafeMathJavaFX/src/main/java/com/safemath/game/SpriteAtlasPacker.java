@@ -0,0 +1,119 @@
+package com.safemath.game;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import javax.imageio.IIOException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Properties;
+
+// Passo de build (exec-maven-plugin, fase process-classes): junta os sprites dos animais e dos chefes
+// num único PNG + índice, já reduzidos ao maior tamanho em que cada um é exibido. As listas de sprites
+// ficam no SpriteAtlas (usadas também em tempo de execução); esta classe fica fora do JAR final (ver pom.xml).
+// Uso: SpriteAtlasPacker <pasta de resources> <pasta de saída>
+public class SpriteAtlasPacker {
+
+    // largura máxima do atlas; as linhas são preenchidas da esquerda para a direita
+    private static final int ATLAS_WIDTH = 1024;
+    private static final int PADDING = 1;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: SpriteAtlasPacker <resourcesDir> <outputDir>");
+            System.exit(1);
+        }
+        File resources = new File(args[0]);
+        File outDir = new File(args[1]);
+
+        int total = SpriteAtlas.ANIMAL_SPRITES.length + SpriteAtlas.BOSS_SPRITES.length
+                + SpriteAtlas.BOSS_INFINITO_SPRITES.length;
+        String[] paths = new String[total];
+        BufferedImage[] sprites = new BufferedImage[total];
+        int n = 0;
+        n = scaleAll(resources, SpriteAtlas.ANIMAL_SPRITES, SpriteSize.PORTRAIT, paths, sprites, n);
+        n = scaleAll(resources, SpriteAtlas.BOSS_SPRITES, SpriteSize.BOSS, paths, sprites, n);
+        n = scaleAll(resources, SpriteAtlas.BOSS_INFINITO_SPRITES, SpriteSize.BOSS_INFINITO, paths, sprites, n);
+
+        // empacotamento em prateleiras: simples e suficiente para uma dúzia de sprites
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        int x = 0, y = 0, shelfHeight = 0, usedWidth = 1;
+        for (int i = 0; i < n; i++) {
+            BufferedImage s = sprites[i];
+            if (x + s.getWidth() > ATLAS_WIDTH) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            xs[i] = x;
+            ys[i] = y;
+            x += s.getWidth() + PADDING;
+            usedWidth = Math.max(usedWidth, x - PADDING);
+            shelfHeight = Math.max(shelfHeight, s.getHeight());
+        }
+        int atlasHeight = y + shelfHeight;
+
+        BufferedImage atlas = new BufferedImage(usedWidth, Math.max(1, atlasHeight), BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = atlas.createGraphics();
+        Properties index = new Properties();
+        for (int i = 0; i < n; i++) {
+            g.drawImage(sprites[i], xs[i], ys[i], null);
+            index.setProperty(paths[i], xs[i] + "," + ys[i] + "," + sprites[i].getWidth() + "," + sprites[i].getHeight());
+        }
+        g.dispose();
+
+        if (!outDir.exists() && !outDir.mkdirs()) {
+            throw new IOException("Não foi possível criar " + outDir);
+        }
+        ImageIO.write(atlas, "png", new File(outDir, "sprites.png"));
+        try (OutputStream out = new FileOutputStream(new File(outDir, "sprites.properties"))) {
+            index.store(out, "x,y,largura,altura de cada sprite em sprites.png");
+        }
+        System.out.println("Atlas gerado: " + n + " sprites em " + usedWidth + "x" + atlasHeight);
+    }
+
+    private static int scaleAll(File resources, String[] list, SpriteSize size,
+                                String[] paths, BufferedImage[] out, int n) throws IOException {
+        for (String path : list) {
+            File f = new File(resources, path.substring(1));
+            // ImageIO.read lança exceção (em vez de devolver null) quando o arquivo não existe
+            if (!f.isFile()) {
+                System.err.println("SpriteAtlasPacker: sprite não encontrado: " + f);
+                continue;
+            }
+            BufferedImage src;
+            try {
+                src = ImageIO.read(f);
+            } catch (IIOException ex) {
+                System.err.println("SpriteAtlasPacker: erro ao ler sprite " + f + ": " + ex.getMessage());
+                continue;
+            }
+            if (src == null) {
+                System.err.println("SpriteAtlasPacker: formato de imagem não reconhecido: " + f);
+                continue;
+            }
+            paths[n] = path;
+            out[n] = scaleToFit(src, size);
+            n++;
+        }
+        return n;
+    }
+
+    // reduz mantendo a proporção (nunca aumenta)
+    private static BufferedImage scaleToFit(BufferedImage src, SpriteSize size) {
+        double scale = Math.min(1.0, Math.min(size.width / src.getWidth(), size.height / src.getHeight()));
+        int w = Math.max(1, (int) Math.round(src.getWidth() * scale));
+        int h = Math.max(1, (int) Math.round(src.getHeight() * scale));
+        BufferedImage dst = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = dst.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(src, 0, 0, w, h, null);
+        g.dispose();
+        return dst;
+    }
+}
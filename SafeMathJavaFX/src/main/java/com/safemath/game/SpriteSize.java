@@ -0,0 +1,24 @@
+package com.safemath.game;
+
+// Tamanho em que cada sprite é exibido; as imagens são decodificadas direto nesse tamanho
+// para não manter texturas em resolução cheia só para encolhê-las no ImageView.
+public enum SpriteSize {
+    CARD(44, 44, true),
+    PORTRAIT(60, 60, true),
+    PLAYER(64, 64, true),
+    ICON(28, 28, true),
+    ARROW(24, 24, true),
+    BOSS(260, 180, true),
+    BOSS_INFINITO(380, 260, true),
+    BACKGROUND(800, 600, false);
+
+    public final double width;
+    public final double height;
+    public final boolean preserveRatio;
+
+    SpriteSize(double width, double height, boolean preserveRatio) {
+        this.width = width;
+        this.height = height;
+        this.preserveRatio = preserveRatio;
+    }
+}
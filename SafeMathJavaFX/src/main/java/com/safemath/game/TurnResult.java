@@ -0,0 +1,22 @@
+package com.safemath.game;
+
+// O que aconteceu num turno processado pelo BattleEngine; o GamePane só desenha a partir disto.
+public class TurnResult {
+    public boolean attackTurn;
+    public boolean correct;
+
+    // turno de ataque: animal usado e se ele podia atacar (fora de cooldown)
+    public Animal attacker;
+    public boolean attacked;
+    public int bossDamage;
+    public int cooldownApplied;
+    public boolean bossDefeated;
+
+    // turno de defesa
+    public int playerDamage;
+    public boolean playerDefeated;
+
+    // o turno passou para o outro lado (false quando o chefe ou o jogador caiu)
+    public boolean turnEnded;
+    public boolean gameOver;
+}
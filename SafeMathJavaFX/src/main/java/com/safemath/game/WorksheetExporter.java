@@ -0,0 +1,354 @@
+package com.safemath.game;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Gera folhas de exercícios (impressas/offline) com os mesmos níveis do QuestionGenerator e grava em CSV
+// ou num binário compacto. Cada thread gera blocos de folhas num buffer próprio e descarrega no FileChannel,
+// então a memória usada não depende da quantidade de questões. Os blocos ficam no arquivo na ordem do índice
+// deles (não na ordem em que as threads terminam): a mesma semente gera sempre o mesmo arquivo. No binário
+// cada bloco tem posição fixa e é gravado direto nela; no CSV (linhas de tamanho variável) cada bloco espera
+// a vez do anterior para ser acrescentado.
+//
+// Uso: WorksheetExporter --out folhas.csv [--count 1000] [--tiers easy,medium,hard,insane,expression,long_expression]
+//        [--format csv|bin] [--sheet 20] [--unique] [--seed N] [--threads N]
+//   --unique  sem questões repetidas na mesma folha; se o nível não tiver questões distintas suficientes
+//             para o tamanho da folha, as repetidas ficam e a exportação avisa quantas foram
+//
+// Binário (little-endian): "SMWS", versão (short), questões por folha (int), e para cada folha:
+//   nível (byte), número da folha (int), quantidade de questões (short), códigos (long cada, ver QuestionCodec).
+// Versão 2: os códigos podem ser expressões (operação >= 4, ver ExpressionTemplate).
+public class WorksheetExporter {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final int SHEETS_PER_BLOCK = 256;
+    // grande o bastante para um bloco inteiro de CSV caber (folhas de 20): as threads geram em paralelo
+    // e só a escrita é feita em ordem
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final int BINARY_HEADER = 4 + 2 + 4;
+    // tentativas para trocar uma questão repetida dentro da mesma folha; esgotadas, a repetida fica e é
+    // contada (nível com menos questões distintas que o tamanho da folha) e avisada no fim da exportação
+    private static final int UNIQUE_ATTEMPTS = 64;
+
+    private static final byte[] CSV_HEADER = "nivel,folha,numero,questao,resposta\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[][] SYMBOLS = {
+            " + ".getBytes(StandardCharsets.UTF_8),
+            " - ".getBytes(StandardCharsets.UTF_8),
+            " × ".getBytes(StandardCharsets.UTF_8),
+            " ÷ ".getBytes(StandardCharsets.UTF_8)
+    };
+    private static final byte[] QUESTION_MARK = " ?".getBytes(StandardCharsets.UTF_8);
+
+    private final List<QuestionTier> tiers;
+    private final long count;
+    private final int sheetSize;
+    private final boolean binary;
+    private final boolean unique;
+    private final long seed;
+    private final int threads;
+
+    private final long blocksPerTier;
+    private final AtomicLong nextBlock = new AtomicLong();
+    // --unique: questões que ficaram repetidas na folha, por nível (índice em tiers)
+    private AtomicLongArray repeated;
+    private FileChannel channel;
+    // CSV: próximo bloco a ser acrescentado no arquivo (guardado por this)
+    private long nextToWrite;
+    private boolean failed;
+
+    public WorksheetExporter(List<QuestionTier> tiers, long count, int sheetSize, boolean binary,
+                             boolean unique, long seed, int threads) {
+        this.tiers = tiers;
+        this.count = count;
+        this.sheetSize = sheetSize;
+        this.binary = binary;
+        this.unique = unique;
+        this.seed = seed;
+        this.threads = threads;
+        long sheets = (count + sheetSize - 1) / sheetSize;
+        this.blocksPerTier = (sheets + SHEETS_PER_BLOCK - 1) / SHEETS_PER_BLOCK;
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<QuestionTier> tiers = new ArrayList<>(List.of(QuestionTier.values()));
+        long count = 1000;
+        int sheetSize = 20;
+        boolean binary = false;
+        boolean unique = false;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            String value = i + 1 < args.length ? args[i + 1] : null;
+            switch (arg) {
+                case "--out" -> { out = Paths.get(value); i++; }
+                case "--count" -> { count = Long.parseLong(value); i++; }
+                case "--sheet" -> { sheetSize = Integer.parseInt(value); i++; }
+                case "--format" -> { binary = "bin".equalsIgnoreCase(value); i++; }
+                case "--seed" -> { seed = Long.parseLong(value); i++; }
+                case "--threads" -> { threads = Integer.parseInt(value); i++; }
+                case "--unique" -> unique = true;
+                case "--tiers" -> {
+                    tiers.clear();
+                    for (String t : value.split(",")) tiers.add(QuestionTier.parse(t.trim()));
+                    i++;
+                }
+                default -> {
+                    System.err.println("Argumento desconhecido: " + arg);
+                    System.exit(1);
+                }
+            }
+        }
+        if (out == null || count <= 0 || sheetSize <= 0 || sheetSize > Short.MAX_VALUE || threads <= 0) {
+            System.err.println("Uso: WorksheetExporter --out arquivo [--count N] [--tiers easy,medium,hard,insane,...]"
+                    + " [--format csv|bin] [--sheet N] [--unique] [--seed N] [--threads N]");
+            System.exit(1);
+        }
+
+        WorksheetExporter exporter = new WorksheetExporter(tiers, count, sheetSize, binary, unique, seed, threads);
+        long start = System.nanoTime();
+        exporter.export(out);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long total = count * tiers.size();
+        System.out.printf("%d questões em %.2f s (%.0f questões/s), semente %d -> %s%n",
+                total, seconds, total / seconds, seed, out);
+    }
+
+    public void export(Path out) throws IOException, InterruptedException {
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel = ch;
+            nextToWrite = 0;
+            failed = false;
+            repeated = new AtomicLongArray(tiers.size());
+            ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+            if (binary) {
+                header.put((byte) 'S').put((byte) 'M').put((byte) 'W').put((byte) 'S');
+                header.putShort((short) FORMAT_VERSION);
+                header.putInt(sheetSize);
+            } else {
+                header.put(CSV_HEADER);
+            }
+            header.flip();
+            while (header.hasRemaining()) ch.write(header);
+
+            Thread[] workers = new Thread[threads];
+            IOException[] failure = new IOException[1];
+            for (int t = 0; t < threads; t++) {
+                workers[t] = new Thread(() -> {
+                    try {
+                        work();
+                    } catch (IOException ex) {
+                        synchronized (failure) {
+                            failure[0] = ex;
+                        }
+                        // acorda quem espera a vez no CSV para não ficar preso
+                        synchronized (this) {
+                            failed = true;
+                            notifyAll();
+                        }
+                    }
+                }, "worksheet-" + t);
+                workers[t].start();
+            }
+            for (Thread w : workers) w.join();
+            if (failure[0] != null) throw failure[0];
+            for (int t = 0; t < tiers.size(); t++) {
+                if (repeated.get(t) > 0) {
+                    System.err.println("WorksheetExporter: --unique não conseguiu evitar " + repeated.get(t)
+                            + " questões repetidas no nível " + tiers.get(t).key + " (folhas de " + sheetSize
+                            + " questões podem ser maiores que as questões distintas do nível)");
+                }
+            }
+        } finally {
+            channel = null;
+        }
+    }
+
+    // Cada thread pega o próximo bloco de folhas livre; o gerador do bloco é semeado pelo índice dele,
+    // então a mesma semente produz as mesmas folhas qualquer que seja o número de threads.
+    private void work() throws IOException {
+        ByteBuffer buf = ByteBuffer.allocateDirect(Math.max(BUFFER_SIZE, maxSheetBytes(sheetSize)))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        long[] sheet = new long[sheetSize];
+        UniqueSet seen = unique ? new UniqueSet(sheetSize) : null;
+        long totalBlocks = blocksPerTier * tiers.size();
+        long sheetsPerTier = (count + sheetSize - 1) / sheetSize;
+        // binário: todas as folhas têm o mesmo tamanho, menos a última de cada nível
+        long fullSheetBytes = 1 + 4 + 2 + 8L * sheetSize;
+        long tierBytes = (1 + 4 + 2) * sheetsPerTier + 8 * count;
+
+        long block;
+        while ((block = nextBlock.getAndIncrement()) < totalBlocks) {
+            int tierIndex = (int) (block / blocksPerTier);
+            QuestionTier tier = tiers.get(tierIndex);
+            long blockInTier = block % blocksPerTier;
+            long blockSeed = seed + ((long) tier.ordinal() << 40) + blockInTier;
+            QuestionGenerator qGen = new QuestionGenerator(new SplittableRandom(blockSeed));
+            // posição do bloco no binário; no CSV (-1) o bloco é acrescentado na sua vez
+            long offset = binary
+                    ? BINARY_HEADER + tierIndex * tierBytes + blockInTier * SHEETS_PER_BLOCK * fullSheetBytes
+                    : -1;
+
+            long firstSheet = blockInTier * SHEETS_PER_BLOCK;
+            long lastSheet = Math.min(firstSheet + SHEETS_PER_BLOCK, sheetsPerTier);
+            for (long s = firstSheet; s < lastSheet; s++) {
+                int n = (int) Math.min(sheetSize, count - s * sheetSize);
+                int dup = fillSheet(qGen, tier, sheet, n, seen);
+                if (dup > 0) repeated.addAndGet(tierIndex, dup);
+                if (buf.remaining() < maxSheetBytes(n)) offset = flush(buf, block, offset);
+                if (binary) writeBinarySheet(buf, tier, s, sheet, n);
+                else writeCsvSheet(buf, tier, s, sheet, n);
+            }
+            flush(buf, block, offset);
+            if (!binary) finishTurn(block);
+        }
+    }
+
+    // devolve quantas questões ficaram repetidas na folha (só com --unique)
+    private int fillSheet(QuestionGenerator qGen, QuestionTier tier, long[] sheet, int n, UniqueSet seen) {
+        if (seen != null) seen.clear();
+        int repeatedInSheet = 0;
+        for (int i = 0; i < n; i++) {
+            long code = qGen.generateCode(tier);
+            if (seen != null) {
+                boolean added = seen.add(code);
+                for (int attempt = 0; !added && attempt < UNIQUE_ATTEMPTS; attempt++) {
+                    code = qGen.generateCode(tier);
+                    added = seen.add(code);
+                }
+                if (!added) repeatedInSheet++;
+            }
+            sheet[i] = code;
+        }
+        return repeatedInSheet;
+    }
+
+    // Conjunto de códigos de uma folha (endereçamento aberto). clear() só troca a marca da folha atual,
+    // sem apagar a tabela.
+    private static final class UniqueSet {
+        private final long[] codes;
+        private final int[] marks;
+        private int mark = 1;
+
+        UniqueSet(int capacity) {
+            int size = Integer.highestOneBit(Math.max(4, capacity) * 2 - 1) << 1;
+            codes = new long[size];
+            marks = new int[size];
+        }
+
+        void clear() {
+            if (++mark == 0) {
+                Arrays.fill(marks, 0);
+                mark = 1;
+            }
+        }
+
+        // false se o código já estava na folha
+        boolean add(long code) {
+            int mask = codes.length - 1;
+            long h = code * 0x9E3779B97F4A7C15L;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (marks[i] == mark) {
+                if (codes[i] == code) return false;
+                i = (i + 1) & mask;
+            }
+            codes[i] = code;
+            marks[i] = mark;
+            return true;
+        }
+    }
+
+    // Grava o buffer e o esvazia. Binário: na posição do bloco (devolve a posição seguinte).
+    // CSV: espera a vez do bloco e acrescenta no fim do arquivo.
+    private long flush(ByteBuffer buf, long block, long offset) throws IOException {
+        buf.flip();
+        if (offset >= 0) {
+            while (buf.hasRemaining()) offset += channel.write(buf, offset);
+        } else if (buf.hasRemaining()) {
+            awaitTurn(block);
+            while (buf.hasRemaining()) channel.write(buf);
+        }
+        buf.clear();
+        return offset;
+    }
+
+    private synchronized void awaitTurn(long block) throws IOException {
+        try {
+            while (nextToWrite != block && !failed) wait();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("exportação interrompida");
+        }
+        if (failed) throw new IOException("exportação abortada por erro em outra thread");
+    }
+
+    private synchronized void finishTurn(long block) throws IOException {
+        awaitTurn(block); // bloco que não gravou nada (nunca acontece com folhas não vazias) também passa a vez
+        nextToWrite = block + 1;
+        notifyAll();
+    }
+
+    private int maxSheetBytes(int n) {
+        // CSV: nível + folha + número + questão (até 4 operandos) + resposta cabem com folga em 96 bytes por linha
+        return binary ? 1 + 4 + 2 + n * 8 : n * 96;
+    }
+
+    private static void writeBinarySheet(ByteBuffer buf, QuestionTier tier, long sheetIndex, long[] sheet, int n) {
+        buf.put((byte) tier.ordinal());
+        buf.putInt((int) sheetIndex);
+        buf.putShort((short) n);
+        for (int i = 0; i < n; i++) buf.putLong(sheet[i]);
+    }
+
+    private static void writeCsvSheet(ByteBuffer buf, QuestionTier tier, long sheetIndex, long[] sheet, int n) {
+        for (int i = 0; i < n; i++) {
+            long code = sheet[i];
+            putAscii(buf, tier.key);
+            buf.put((byte) ',');
+            putNumber(buf, sheetIndex + 1);
+            buf.put((byte) ',');
+            putNumber(buf, i + 1);
+            buf.put((byte) ',');
+            putNumber(buf, QuestionCodec.a(code));
+            int operations = QuestionCodec.operations(code);
+            for (int k = 0; k < operations; k++) {
+                buf.put(SYMBOLS[QuestionCodec.operator(code, k)]);
+                putNumber(buf, QuestionCodec.operand(code, k + 1));
+            }
+            buf.put(QUESTION_MARK);
+            buf.put((byte) ',');
+            putNumber(buf, QuestionCodec.answer(code));
+            buf.put((byte) '\n');
+        }
+    }
+
+    private static void putAscii(ByteBuffer buf, String s) {
+        for (int i = 0; i < s.length(); i++) buf.put((byte) s.charAt(i));
+    }
+
+    // escreve o número em decimal direto no buffer (sem String)
+    private static void putNumber(ByteBuffer buf, long v) {
+        if (v < 0) {
+            buf.put((byte) '-');
+            v = -v;
+        }
+        long div = 1;
+        while (v / div >= 10) div *= 10;
+        for (; div > 0; div /= 10) buf.put((byte) ('0' + (v / div) % 10));
+    }
+}
@@ -0,0 +1,133 @@
+package com.safemath.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BattleEngineTest {
+
+    // Matemática começa no Coelho (força 10) contra um chefe com 30 de vida, no turno de ataque
+    private static Game newGame() {
+        Game game = new Game(3);
+        game.setMode(Mode.MATEMATICA);
+        return game;
+    }
+
+    @Test
+    void correctAnswerDamagesBossAndStartsCooldown() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+        Animal tigre = game.animals.get(4);
+        game.currentBoss.health = 200;
+
+        TurnResult r = engine.submitAnswer(tigre, true);
+        assertTrue(r.attackTurn);
+        assertTrue(r.attacked);
+        assertSame(tigre, r.attacker);
+        assertEquals(50, r.bossDamage);
+        assertEquals(150, game.currentBoss.health);
+        assertEquals(50, game.damageDealt);
+        assertEquals(BattleEngine.cooldownFor(tigre), r.cooldownApplied);
+        assertEquals(5, r.cooldownApplied);
+        assertFalse(tigre.canAttack());
+    }
+
+    @Test
+    void wrongAnswerOnAttackDoesNoDamageAndPassesTheTurn() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+
+        TurnResult r = engine.submitAnswer(null, false);
+        assertTrue(r.attacked);
+        assertEquals(0, r.bossDamage);
+        assertEquals(30, game.currentBoss.health);
+        assertEquals(0, game.streak);
+        assertTrue(r.turnEnded);
+        assertFalse(game.isPlayerTurn());
+    }
+
+    // animal em cooldown não ataca, mas o turno passa e o cooldown anda um turno
+    @Test
+    void animalInCooldownDoesNotAttack() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+        Animal coelho = game.currentAnimal;
+        game.cooldowns.start(coelho, 3);
+
+        TurnResult r = engine.submitAnswer(coelho, true);
+        assertFalse(r.attacked);
+        assertEquals(0, r.bossDamage);
+        assertEquals(30, game.currentBoss.health);
+        assertEquals(2, coelho.cooldown());
+        assertTrue(r.turnEnded);
+    }
+
+    @Test
+    void defenseTurnDamagesPlayerOnlyOnWrongAnswer() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+        game.setPlayerTurn(false);
+
+        TurnResult ok = engine.submitAnswer(null, true);
+        assertFalse(ok.attackTurn);
+        assertEquals(0, ok.playerDamage);
+        assertEquals(200, game.player.getHealth());
+        assertTrue(game.isPlayerTurn());
+
+        game.setPlayerTurn(false);
+        TurnResult wrong = engine.submitAnswer(null, false);
+        assertTrue(wrong.playerDamage >= 1 && wrong.playerDamage <= engine.counterDamageMax());
+        assertEquals(200 - wrong.playerDamage, game.player.getHealth());
+        assertTrue(wrong.turnEnded);
+    }
+
+    // chefe derrotado na Matemática: próximo animal desbloqueado, chefe novo e o turno continua de ataque
+    @Test
+    void defeatingBossUnlocksNextAnimal() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+        game.currentBoss.health = 10;
+
+        TurnResult r = engine.submitAnswer(null, true);
+        assertTrue(r.bossDefeated);
+        assertFalse(r.gameOver);
+        assertFalse(r.turnEnded);
+        assertEquals(1, game.bossesDefeated);
+        assertSame(game.animals.get(1), game.currentAnimal);
+        assertEquals(60, game.currentBoss.health);
+        assertTrue(game.isPlayerTurn());
+    }
+
+    @Test
+    void defeatingLastBossWinsTheMode() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+        game.currentAnimal = game.animals.get(4);
+        game.spawnBoss();
+        game.currentBoss.health = 50;
+
+        TurnResult r = engine.submitAnswer(null, true);
+        assertTrue(r.bossDefeated);
+        assertTrue(r.gameOver);
+        assertTrue(game.isFinished());
+        assertTrue(game.player.isAlive());
+    }
+
+    @Test
+    void playerAtZeroHealthLosesTheGame() {
+        Game game = newGame();
+        BattleEngine engine = new BattleEngine(game);
+        game.setPlayerTurn(false);
+        game.player.setHealth(1);
+
+        TurnResult r = engine.submitAnswer(null, false);
+        assertTrue(r.playerDefeated);
+        assertTrue(r.gameOver);
+        assertFalse(r.turnEnded);
+        assertTrue(game.isFinished());
+        assertFalse(game.player.isAlive());
+    }
+}
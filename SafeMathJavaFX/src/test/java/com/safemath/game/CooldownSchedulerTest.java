@@ -0,0 +1,54 @@
+package com.safemath.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CooldownSchedulerTest {
+
+    // roda de tempo x contagem regressiva simples por animal, inclusive cooldowns maiores que a roda
+    // e cooldown refeito antes de acabar
+    @Test
+    void matchesPerAnimalCountdown() {
+        Random random = new Random(1);
+        Game game = new Game(5);
+        for (int i = 0; i < 295; i++) game.addAnimal(new Animal("A" + i, 1 + random.nextInt(100)));
+        int n = game.animals.size();
+        int[] expected = new int[n];
+
+        for (int step = 0; step < 100_000; step++) {
+            int op = random.nextInt(3);
+            if (op == 0) {
+                int i = random.nextInt(n);
+                int turns = random.nextInt(200);
+                game.cooldowns.start(game.animals.get(i), turns);
+                expected[i] = turns;
+            } else if (op == 1) {
+                game.decrementAllCooldowns();
+                for (int i = 0; i < n; i++) if (expected[i] > 0) expected[i]--;
+            } else {
+                for (int i = 0; i < n; i++) {
+                    assertEquals(expected[i], game.animals.get(i).cooldown(), "animal " + i + " no passo " + step);
+                    assertEquals(expected[i] == 0, game.cooldowns.isReady(i), "animal " + i + " no passo " + step);
+                }
+            }
+        }
+    }
+
+    @Test
+    void findPreviousAvailablePrefersEarlierReadyAnimal() {
+        Game game = new Game(5);
+        game.setMode(Mode.ARCADE);
+        Animal tigre = game.animals.get(4);
+        game.cooldowns.start(game.animals.get(3), 2);
+        game.cooldowns.start(tigre, 5);
+        assertEquals(game.animals.get(2), game.findPreviousAvailable(tigre));
+
+        for (int i = 0; i < 3; i++) game.cooldowns.start(game.animals.get(i), 1);
+        assertEquals(game.currentAnimal, game.findPreviousAvailable(tigre));
+        game.decrementAllCooldowns();
+        assertEquals(game.animals.get(2), game.findPreviousAvailable(tigre));
+    }
+}
@@ -0,0 +1,42 @@
+package com.safemath.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventJournalTest {
+
+    @TempDir
+    Path dir;
+
+    // quiosque reiniciado várias vezes: cada abertura cria um segmento, mas os antigos são apagados
+    @Test
+    void reopeningKeepsSegmentCountBounded() throws Exception {
+        for (int i = 0; i < 40; i++) {
+            try (EventJournal journal = EventJournal.open(dir, 4096)) {
+                journal.append(EventJournal.SESSION_START, i, 0, 0, 0, 0);
+            }
+        }
+        assertEquals(16, EventJournal.segments(dir).size());
+    }
+
+    // fechado logo depois de pedir o próximo segmento (passou de 3/4 do atual): o segmento novo, vazio,
+    // não fica no disco
+    @Test
+    void closeNearRolloverLeavesNoEmptySegment() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            try (EventJournal journal = EventJournal.open(dir, 4096)) {
+                for (int r = 0; r < 100; r++) journal.append(EventJournal.QUESTION, i, 0, 0, 0, r);
+            }
+        }
+        assertEquals(16, EventJournal.segments(dir).size());
+        // os 16 guardados são das 16 últimas execuções, 100 registros cada
+        EventJournal.Reader reader = new EventJournal.Reader(dir);
+        int records = 0;
+        while (reader.next()) records++;
+        assertEquals(16 * 100, records);
+    }
+}
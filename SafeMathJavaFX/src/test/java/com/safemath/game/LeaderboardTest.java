@@ -0,0 +1,255 @@
+package com.safemath.game;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaderboardTest {
+
+    @TempDir
+    Path dir;
+
+    private static Leaderboard.Score score(long id) {
+        return new Leaderboard.Score("p" + (id % 50), (int) (id % Leaderboard.MODES), (int) (id % 7), id, 1, id, id);
+    }
+
+    private static int total(Leaderboard board) {
+        int n = 0;
+        for (int m = 0; m < Leaderboard.MODES; m++) n += board.size(m);
+        return n;
+    }
+
+    // cada partida (semente única) aparece uma vez só somando o top de todos os modos
+    private static void assertNoDuplicates(Leaderboard board, int expected) {
+        Set<Long> seeds = new HashSet<>();
+        for (int m = 0; m < Leaderboard.MODES; m++) {
+            for (Leaderboard.Score s : board.top(m, board.size(m))) {
+                assertTrue(seeds.add(s.seed), "partida repetida no ranking: semente " + s.seed);
+            }
+        }
+        assertEquals(expected, seeds.size());
+    }
+
+    @Test
+    void topAndRankAfterReopen() throws Exception {
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            board.submit(new Leaderboard.Score("ana", 1, 2, 500, 4, 1, 11));
+            board.submit(new Leaderboard.Score("bia", 1, 3, 100, 2, 2, 12));
+            board.submit(new Leaderboard.Score("ana", 1, 1, 900, 9, 3, 13));
+        }
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            List<Leaderboard.Score> top = board.top(1, 10);
+            assertEquals(3, top.size());
+            assertEquals("bia", top.get(0).player);
+            assertEquals(2, board.rank("ana", 1));
+            assertEquals(-1, board.rank("caio", 1));
+        }
+    }
+
+    // Várias threads enviando enquanto o Leaderboard compacta (o limite de compactação é ultrapassado
+    // muitas vezes): ao reabrir, cada partida tem que estar uma vez só, nem perdida nem no índice e no log.
+    @Test
+    void submitDuringCompactionThenReopen() throws Exception {
+        int threads = 4;
+        int perThread = 3000;
+        Leaderboard board = Leaderboard.open(dir);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            long first = (long) t * perThread;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    board.submit(score(first + i));
+                    if (i % 64 == 0) Thread.yield();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.MINUTES));
+        assertEquals(threads * perThread, total(board));
+        assertNoDuplicates(board, threads * perThread);
+        board.close();
+
+        try (Leaderboard reopened = Leaderboard.open(dir)) {
+            assertEquals(threads * perThread, total(reopened));
+            assertNoDuplicates(reopened, threads * perThread);
+        }
+    }
+
+    // final do log cortado (travamento no meio de uma gravação) é descartado, o resto continua
+    @Test
+    void tornLogTailIsDropped() throws Exception {
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            for (int i = 0; i < 10; i++) board.submit(score(i));
+        }
+        Files.write(dir.resolve("scores.log"), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            assertEquals(10, total(board));
+            board.submit(score(10));
+        }
+        try (Leaderboard board = Leaderboard.open(dir)) {
+            assertNoDuplicates(board, 11);
+        }
+    }
+
+    // Gravação cortada no meio e force() falhando: os placares voltam para os pendentes e o log não fica com
+    // lixo no meio (senão a próxima abertura descartaria os registros gravados depois dele).
+    @Test
+    void failedAppendIsRetriedWithoutTearingTheLog() throws Exception {
+        FailingChannel ch = new FailingChannel(FileChannel.open(dir.resolve("scores.log"), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        Leaderboard board = Leaderboard.open(dir, ch);
+
+        ch.failWrite = true;
+        for (int i = 0; i < 3; i++) board.submit(score(i));
+        awaitFailures(ch, 1);
+        ch.failWrite = false;
+        ch.failForce = true;
+        board.submit(score(3));
+        awaitFailures(ch, 2);
+        ch.failForce = false;
+        board.submit(score(4));
+        board.close();
+
+        // sem os índices tudo vem do log: nenhum placar perdido nem repetido
+        for (int m = 0; m < Leaderboard.MODES; m++) Files.deleteIfExists(dir.resolve("mode-" + m + ".idx"));
+        try (Leaderboard reopened = Leaderboard.open(dir)) {
+            assertNoDuplicates(reopened, 5);
+        }
+    }
+
+    private static void awaitFailures(FailingChannel ch, int n) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (ch.failures.get() < n) {
+            assertTrue(System.nanoTime() < deadline, "gravação com falha não aconteceu");
+            Thread.sleep(1);
+        }
+    }
+
+    // repassa tudo para o canal de verdade; write() grava só metade e falha, force() falha
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel ch;
+        volatile boolean failWrite;
+        volatile boolean failForce;
+        final AtomicInteger failures = new AtomicInteger();
+
+        FailingChannel(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            if (!failWrite) return ch.write(src, position);
+            ByteBuffer half = src.duplicate();
+            half.limit(src.position() + Math.max(1, src.remaining() / 2));
+            ch.write(half, position);
+            failures.incrementAndGet();
+            throw new IOException("disco cheio (teste)");
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                failures.incrementAndGet();
+                throw new IOException("force falhou (teste)");
+            }
+            ch.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return ch.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return ch.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return ch.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return ch.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return ch.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            ch.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return ch.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            ch.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return ch.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return ch.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return ch.read(dst, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return ch.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return ch.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return ch.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            ch.close();
+        }
+    }
+}
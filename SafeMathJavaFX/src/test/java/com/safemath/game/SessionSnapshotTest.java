@@ -0,0 +1,85 @@
+package com.safemath.game;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SessionSnapshotTest {
+
+    // elenco grande (mais de 127 animais): índice e cooldowns voltam iguais
+    @Test
+    void roundTripWithLargeRoster() throws Exception {
+        Game game = new Game(42);
+        game.setMode(Mode.ARCADE);
+        for (int i = 0; i < 295; i++) game.addAnimal(new Animal("A" + i, 10 + i));
+        game.currentAnimal = game.animals.get(200);
+        game.cooldowns.start(game.animals.get(250), 7);
+        game.bossesDefeated = 2;
+
+        SessionSnapshot s = SessionSnapshot.decode(SessionSnapshot.capture(game).encode());
+        Game restored = s.restore();
+        assertEquals(200, s.animalIndex);
+        assertEquals(300, s.cooldowns.length);
+        assertEquals(7, s.cooldowns[250]);
+        assertEquals(Mode.ARCADE, restored.getMode());
+        assertEquals(2, restored.bossesDefeated);
+    }
+
+    // Partida restaurada continua com questões novas (não as do começo da semente), e salvar no meio
+    // da partida não muda as questões dela.
+    @Test
+    void restoredGameContinuesWithNewQuestions() throws Exception {
+        Game game = new Game(7);
+        Game unsaved = new Game(7);
+        long[] opening = questions(new Game(7), 20);
+        for (int i = 0; i < 20; i++) {
+            SessionSnapshot.capture(game);
+            assertEquals(unsaved.qGen.generateCode(QuestionTier.MEDIUM), game.qGen.generateCode(QuestionTier.MEDIUM));
+        }
+
+        Game restored = SessionSnapshot.decode(SessionSnapshot.capture(game).encode()).restore();
+        assertEquals(7, restored.getSeed());
+        assertFalse(Arrays.equals(opening, questions(restored, 20)), "restaurou repetindo as questões do começo");
+    }
+
+    private static long[] questions(Game game, int n) {
+        long[] codes = new long[n];
+        for (int i = 0; i < n; i++) codes[i] = game.qGen.generateCode(QuestionTier.MEDIUM);
+        return codes;
+    }
+
+    // quantidade de animais impossível (com CRC válido) vira IOException, não NegativeArraySizeException
+    @Test
+    void badAnimalCountIsCorruptSave() {
+        byte[] data = SessionSnapshot.capture(new Game(1)).encode();
+        // magic (4) + versão (2) + modo (1) + animal (4) + fase (1) + turno (1) + semente (8) + vidas (16)
+        ByteBuffer.wrap(data).putInt(4 + 2 + 7 + 8 + 16, -5);
+        fixCrc(data);
+        assertThrows(IOException.class, () -> SessionSnapshot.decode(data));
+
+        ByteBuffer.wrap(data).putInt(4 + 2 + 7 + 8 + 16, 1 << 20);
+        fixCrc(data);
+        assertThrows(IOException.class, () -> SessionSnapshot.decode(data));
+    }
+
+    @Test
+    void truncatedSaveIsRejected() {
+        byte[] data = SessionSnapshot.capture(new Game(1)).encode();
+        assertThrows(IOException.class, () -> SessionSnapshot.decode(Arrays.copyOf(data, 3)));
+        data[10] ^= 1;
+        assertThrows(IOException.class, () -> SessionSnapshot.decode(data));
+    }
+
+    private static void fixCrc(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length - 4);
+        ByteBuffer.wrap(data).putInt(data.length - 4, (int) crc.getValue());
+    }
+}